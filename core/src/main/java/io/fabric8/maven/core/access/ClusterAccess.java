@@ -22,7 +22,6 @@ import io.fabric8.kubernetes.api.KubernetesHelper;
 import io.fabric8.kubernetes.client.*;
 import io.fabric8.maven.core.config.PlatformMode;
 import io.fabric8.maven.docker.util.Logger;
-import io.fabric8.openshift.client.DefaultOpenShiftClient;
 import io.fabric8.openshift.client.OpenShiftClient;
 import io.fabric8.utils.Strings;
 
@@ -47,6 +46,10 @@ public class ClusterAccess {
         }
     }
 
+    /**
+     * Get a client for the cluster, which is an OpenShift client when running against OpenShift.
+     * Clients are shared within the build (see {@link ClusterClientRegistry}) and must not be closed.
+     */
     public KubernetesClient createDefaultClient(Logger log) {
         if (isOpenShift(log)) {
             return createOpenShiftClient();
@@ -56,11 +59,11 @@ public class ClusterAccess {
     }
 
     public KubernetesClient createKubernetesClient() {
-        return new DefaultKubernetesClient(createDefaultConfig());
+        return ClusterClientRegistry.getInstance().getKubernetesClient(createDefaultConfig());
     }
 
     public OpenShiftClient createOpenShiftClient() {
-        return new DefaultOpenShiftClient(createDefaultConfig());
+        return ClusterClientRegistry.getInstance().getOpenShiftClient(createDefaultConfig());
     }
 
     // ============================================================================
@@ -73,8 +76,16 @@ public class ClusterAccess {
     }
 
     public boolean isOpenShift(Logger log) {
+        Config config = createDefaultConfig();
+        ClusterClientRegistry registry = ClusterClientRegistry.getInstance();
+        Boolean cached = registry.getOpenShift(config);
+        if (cached != null) {
+            return cached;
+        }
         try {
-            return KubernetesHelper.isOpenShift(createKubernetesClient());
+            boolean openShift = KubernetesHelper.isOpenShift(registry.getKubernetesClient(config));
+            registry.setOpenShift(config, openShift);
+            return openShift;
         } catch (KubernetesClientException exp) {
             Throwable cause = exp.getCause();
             String prefix = cause instanceof UnknownHostException ? "Unknown host " : "";
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.core.access;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.DefaultKubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.utils.HttpClientUtils;
+import io.fabric8.openshift.client.DefaultOpenShiftClient;
+import io.fabric8.openshift.client.OpenShiftClient;
+import io.fabric8.openshift.client.OpenShiftConfig;
+import okhttp3.OkHttpClient;
+
+/**
+ * Registry for clients which are shared by all goals and modules running within the same
+ * build. Clients are identified by the master URL, the namespace and the credentials of
+ * their configuration. The Kubernetes and OpenShift client for the same cluster share a
+ * single HTTP client and so its connection pool. The result of the OpenShift detection
+ * is cached, too.
+ *
+ * Clients obtained from the registry must not be closed by the caller. They are closed
+ * all together via {@link #close()}, which happens at the latest when the build's JVM exits.
+ */
+public class ClusterClientRegistry {
+
+    private static final ClusterClientRegistry INSTANCE = new ClusterClientRegistry();
+
+    private final Map<List<Object>, Entry> entries = new HashMap<>();
+
+    private boolean shutdownHookRegistered;
+
+    // Visible for testing
+    ClusterClientRegistry() {
+    }
+
+    public static ClusterClientRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the shared Kubernetes client for the given configuration
+     */
+    public synchronized KubernetesClient getKubernetesClient(Config config) {
+        Entry entry = getEntry(config);
+        if (entry.kubernetesClient == null) {
+            entry.kubernetesClient = new DefaultKubernetesClient(entry.httpClient, config);
+        }
+        return entry.kubernetesClient;
+    }
+
+    /**
+     * Get the shared OpenShift client for the given configuration
+     */
+    public synchronized OpenShiftClient getOpenShiftClient(Config config) {
+        Entry entry = getEntry(config);
+        if (entry.openShiftClient == null) {
+            entry.openShiftClient = new SharedOpenShiftClient(entry.httpClient, OpenShiftConfig.wrap(config));
+        }
+        return entry.openShiftClient;
+    }
+
+    /**
+     * Get the cached result of the OpenShift detection
+     *
+     * @return true or false if already detected, null otherwise
+     */
+    public synchronized Boolean getOpenShift(Config config) {
+        Entry entry = entries.get(createKey(config));
+        return entry != null ? entry.openShift : null;
+    }
+
+    public synchronized void setOpenShift(Config config, boolean openShift) {
+        getEntry(config).openShift = openShift;
+    }
+
+    /**
+     * Close all clients and clear the registry
+     */
+    public void close() {
+        List<Entry> toClose;
+        synchronized (this) {
+            toClose = new ArrayList<>(entries.values());
+            entries.clear();
+        }
+        for (Entry entry : toClose) {
+            entry.close();
+        }
+    }
+
+    private Entry getEntry(Config config) {
+        List<Object> key = createKey(config);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(HttpClientUtils.createHttpClient(config));
+            entries.put(key, entry);
+            registerShutdownHook();
+        }
+        return entry;
+    }
+
+    private void registerShutdownHook() {
+        if (!shutdownHookRegistered) {
+            Runtime.getRuntime().addShutdownHook(new Thread("fabric8-client-registry-shutdown") {
+                @Override
+                public void run() {
+                    ClusterClientRegistry.this.close();
+                }
+            });
+            shutdownHookRegistered = true;
+        }
+    }
+
+    private static List<Object> createKey(Config config) {
+        return Arrays.<Object>asList(
+            config.getMasterUrl(),
+            config.getNamespace(),
+            config.getUsername(),
+            config.getPassword(),
+            config.getOauthToken(),
+            config.getClientCertFile(),
+            config.getClientCertData(),
+            config.getClientKeyFile(),
+            config.getClientKeyData(),
+            config.getCaCertFile(),
+            config.getCaCertData(),
+            config.isTrustCerts());
+    }
+
+    // ===========================================================================================
+
+    private static class Entry {
+        private final OkHttpClient httpClient;
+        private KubernetesClient kubernetesClient;
+        private OpenShiftClient openShiftClient;
+        private Boolean openShift;
+
+        private Entry(OkHttpClient httpClient) {
+            this.httpClient = httpClient;
+        }
+
+        private void close() {
+            // Both clients share the HTTP client, which is shut down by closing any of them
+            if (kubernetesClient != null) {
+                kubernetesClient.close();
+            } else if (openShiftClient != null) {
+                openShiftClient.close();
+            }
+        }
+    }
+
+    // The constructor for using a given HTTP client is not public. Adapting the Kubernetes client
+    // instead would check the cluster for OpenShift. DefaultOpenShiftClient implements the generic
+    // resource(T) with a raw type, which any subclass inherits as an unchecked override.
+    @SuppressWarnings("unchecked")
+    private static class SharedOpenShiftClient extends DefaultOpenShiftClient {
+        private SharedOpenShiftClient(OkHttpClient httpClient, OpenShiftConfig config) {
+            super(httpClient, config);
+        }
+    }
+}
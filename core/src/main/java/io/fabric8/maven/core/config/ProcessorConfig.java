@@ -54,6 +54,10 @@ public class ProcessorConfig {
     @JsonProperty(value = "config")
     Map<String, TreeMap> config = new HashMap<>();
 
+    // Lookup structures, created on first use. Maven injects the parameters above directly into
+    // the fields, so the configuration is only compiled when it is looked up for the first time.
+    private volatile Compiled compiled;
+
     public ProcessorConfig() { }
 
     public ProcessorConfig(List<String> includes, Set<String> excludes, Map<String, TreeMap> config) {
@@ -65,8 +69,8 @@ public class ProcessorConfig {
     }
 
     public String getConfig(String name, String key) {
-        TreeMap processorMap =  config.get(name);
-        return processorMap != null ? (String) processorMap.get(key) : null;
+        Map<String, String> processorMap = getCompiled().config.get(name);
+        return processorMap != null ? processorMap.get(key) : null;
     }
 
     /**
@@ -76,9 +80,8 @@ public class ProcessorConfig {
      * @return unmodifiable map of the original config
      */
     public Map<String, String> getConfigMap(String name) {
-        return config.containsKey(name) ?
-            Collections.unmodifiableMap(config.get(name)) :
-            Collections.<String, String>emptyMap();
+        Map<String, String> processorMap = getCompiled().config.get(name);
+        return processorMap != null ? processorMap : Collections.<String, String>emptyMap();
     }
 
     /**
@@ -101,26 +104,46 @@ public class ProcessorConfig {
         for (T named : namedList) {
             lookup.put(named.getName(), named);
         }
-        for (String inc : includes) {
-            if (use(inc)) {
-                T named = lookup.get(inc);
-                if (named == null) {
-                    List<String> keys = new ArrayList<>(lookup.keySet());
-                    Collections.sort(keys);
-                    throw new IllegalArgumentException(
-                        "No " + type + " with name '" + inc +
-                        "' found to include. " +
-                        "Please check spelling in your profile / config and your project dependencies. Included " + type + "s: " +
-                        StringUtils.join(keys,", "));
-                }
-                ret.add(named);
+        for (String inc : getCompiled().used) {
+            T named = lookup.get(inc);
+            if (named == null) {
+                List<String> keys = new ArrayList<>(lookup.keySet());
+                Collections.sort(keys);
+                throw new IllegalArgumentException(
+                    "No " + type + " with name '" + inc +
+                    "' found to include. " +
+                    "Please check spelling in your profile / config and your project dependencies. Included " + type + "s: " +
+                    StringUtils.join(keys,", "));
             }
+            ret.add(named);
         }
         return ret;
     }
 
     public boolean use(String inc) {
-        return !excludes.contains(inc) && includes.contains(inc);
+        return getCompiled().usedSet.contains(inc);
+    }
+
+    /**
+     * Create the lookup structures for this configuration, if not already done. This is called implicitly on the
+     * first lookup, but can be called upfront so that the work is not done while processing. The configuration
+     * must not be changed afterwards.
+     *
+     * @return this configuration
+     */
+    public ProcessorConfig compile() {
+        getCompiled();
+        return this;
+    }
+
+    private Compiled getCompiled() {
+        Compiled ret = compiled;
+        if (ret == null) {
+            // Compiling concurrently is harmless as both results are equal
+            ret = new Compiled(includes, excludes, config);
+            compiled = ret;
+        }
+        return ret;
     }
 
     /**
@@ -185,15 +208,8 @@ public class ProcessorConfig {
     }
 
     // Remove duplicates such that the earlier element remains and the latter is removed
-    // Only good for small list (that's what we expect for enrichers and generators)
     private static List<String> removeDups(List<String> list) {
-        List<String> ret = new ArrayList<>();
-        for (String el : list) {
-            if (!ret.contains(el)) {
-                ret.add(el);
-            }
-        }
-        return ret;
+        return new ArrayList<>(new LinkedHashSet<>(list));
     }
 
     private static Map<String, TreeMap> mergeConfig(ProcessorConfig ... processorConfigs) {
@@ -225,4 +241,43 @@ public class ProcessorConfig {
         return ret.size() > 0 ? ret : null;
     }
 
+    // Immutable lookup structures: the included processors which are not excluded, in include order
+    // and as hash set, and the configuration flattened to string maps per processor
+    private static final class Compiled {
+
+        private final List<String> used;
+        private final Set<String> usedSet;
+        private final Map<String, Map<String, String>> config;
+
+        private Compiled(List<String> includes, Set<String> excludes, Map<String, TreeMap> config) {
+            Set<String> used = new LinkedHashSet<>();
+            if (includes != null) {
+                for (String inc : includes) {
+                    if (excludes == null || !excludes.contains(inc)) {
+                        used.add(inc.intern());
+                    }
+                }
+            }
+            this.used = Collections.unmodifiableList(new ArrayList<>(used));
+            this.usedSet = Collections.unmodifiableSet(used);
+
+            Map<String, Map<String, String>> flattened = new HashMap<>();
+            if (config != null) {
+                for (Map.Entry<String, TreeMap> entry : config.entrySet()) {
+                    TreeMap values = entry.getValue();
+                    if (values != null) {
+                        // Keeps the sorted order of the original map for iteration
+                        Map<String, String> processorMap = new LinkedHashMap<>();
+                        for (Object o : values.entrySet()) {
+                            Map.Entry<?, ?> value = (Map.Entry<?, ?>) o;
+                            Object val = value.getValue();
+                            processorMap.put(String.valueOf(value.getKey()).intern(), val != null ? val.toString() : null);
+                        }
+                        flattened.put(entry.getKey().intern(), Collections.unmodifiableMap(processorMap));
+                    }
+                }
+            }
+            this.config = flattened;
+        }
+    }
 }
@@ -0,0 +1,450 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.core.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import io.fabric8.kubernetes.api.Controller;
+import io.fabric8.kubernetes.api.KubernetesHelper;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.ReplicationController;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.maven.core.util.KubernetesResourceUtil;
+import io.fabric8.maven.docker.util.Logger;
+import io.fabric8.openshift.client.OpenShiftClient;
+import io.fabric8.utils.Strings;
+
+/**
+ * Applies a set of entities via a {@link Controller}. Entities are grouped into dependency
+ * tiers (namespaces, configuration, services, everything else) which are applied one after
+ * the other. The entities within a tier are independent of each other and are applied
+ * concurrently with the given number of workers.
+ *
+ * Optionally entities can be skipped when they are unchanged. For this the live objects are
+ * fetched with a single list call per kind and namespace, and entities whose spec hash
+ * (see {@link KubernetesResourceUtil#computeSpecHash(HasMetadata)}) matches the hash annotation
+ * of the live object are not applied again.
+ */
+public class ApplyService {
+
+    // Kinds which need to exist before anything else can be applied
+    private static final Set<String> NAMESPACE_TIER_KINDS = new HashSet<>(Arrays.asList(
+        "Namespace", "Project", "ProjectRequest", "CustomResourceDefinition", "ThirdPartyResource"
+    ));
+
+    // Kinds which are referenced by services and pods
+    private static final Set<String> CONFIG_TIER_KINDS = new HashSet<>(Arrays.asList(
+        "ConfigMap", "Secret", "ServiceAccount", "SecurityContextConstraints",
+        "PersistentVolume", "PersistentVolumeClaim", "LimitRange", "ResourceQuota",
+        "Role", "RoleBinding", "ClusterRole", "ClusterRoleBinding", "PolicyBinding", "ClusterPolicyBinding",
+        "OAuthClient", "ImageStream", "ImageStreamTag"
+    ));
+
+    private static final String SERVICE_TIER_KIND = "Service";
+
+    private final Controller controller;
+    private final Logger log;
+    private final int workers;
+
+    // Client used for looking up live objects when skipping unchanged entities
+    private KubernetesClient skipUnchangedClient;
+
+    public ApplyService(Controller controller, Logger log, int workers) {
+        this.controller = controller;
+        this.log = log;
+        this.workers = Math.max(1, workers);
+    }
+
+    /**
+     * Skip entities which are unchanged compared to their live counterparts
+     *
+     * @param client client used for fetching the live objects
+     */
+    public void enableSkipUnchanged(KubernetesClient client) {
+        this.skipUnchangedClient = client;
+    }
+
+    /**
+     * Apply the given entities tier by tier. Applying stops after the first tier in which
+     * an entity could not be applied.
+     *
+     * @param entities entities to apply
+     * @param fileName name of the manifest the entities originate from (used for logging)
+     * @return the timing for each entity, skipped entities first and then in the order of application
+     * @throws Fabric8ServiceException if an entity could not be applied
+     */
+    public List<ApplyResult> apply(Collection<HasMetadata> entities, String fileName) throws Fabric8ServiceException {
+        List<ApplyResult> results = new ArrayList<>();
+        Map<String, String> liveHashes = null;
+        if (skipUnchangedClient != null && entities != null) {
+            liveHashes = fetchLiveHashes(entities);
+            entities = removeUnchanged(entities, liveHashes, results);
+        }
+        List<List<HasMetadata>> tiers = groupIntoTiers(entities);
+        if (workers == 1) {
+            for (List<HasMetadata> tier : tiers) {
+                for (HasMetadata entity : tier) {
+                    results.add(applyAndMeasure(entity, fileName, liveHashes));
+                }
+            }
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(workers);
+            try {
+                for (List<HasMetadata> tier : tiers) {
+                    results.addAll(applyConcurrently(executor, tier, fileName, liveHashes));
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        logSummary(results);
+        return results;
+    }
+
+    /**
+     * Apply a single entity with the method of the controller suitable for its type
+     *
+     * @param entity entity to apply
+     * @param fileName source manifest name
+     */
+    protected void applyEntity(HasMetadata entity, String fileName) throws Exception {
+        if (entity instanceof Pod) {
+            controller.applyPod((Pod) entity, fileName);
+        } else if (entity instanceof Service) {
+            controller.applyService((Service) entity, fileName);
+        } else if (entity instanceof ReplicationController) {
+            controller.applyReplicationController((ReplicationController) entity, fileName);
+        } else if (entity != null) {
+            controller.apply(entity, fileName);
+        }
+    }
+
+    /**
+     * Group entities into tiers which must be applied in order. The order of the entities within each
+     * tier is the order of the given collection.
+     *
+     * @param entities entities to group
+     * @return list of non-empty tiers
+     */
+    public static List<List<HasMetadata>> groupIntoTiers(Collection<HasMetadata> entities) {
+        List<HasMetadata> namespaces = new ArrayList<>();
+        List<HasMetadata> configs = new ArrayList<>();
+        List<HasMetadata> services = new ArrayList<>();
+        List<HasMetadata> others = new ArrayList<>();
+        if (entities != null) {
+            for (HasMetadata entity : entities) {
+                if (entity == null) {
+                    continue;
+                }
+                String kind = entity.getKind();
+                if (NAMESPACE_TIER_KINDS.contains(kind)) {
+                    namespaces.add(entity);
+                } else if (CONFIG_TIER_KINDS.contains(kind)) {
+                    configs.add(entity);
+                } else if (SERVICE_TIER_KIND.equals(kind)) {
+                    services.add(entity);
+                } else {
+                    others.add(entity);
+                }
+            }
+        }
+        List<List<HasMetadata>> ret = new ArrayList<>();
+        for (List<HasMetadata> tier : Arrays.asList(namespaces, configs, services, others)) {
+            if (!tier.isEmpty()) {
+                ret.add(tier);
+            }
+        }
+        return ret;
+    }
+
+    // ========================================================================================
+
+    private List<ApplyResult> applyConcurrently(ExecutorService executor, List<HasMetadata> tier, final String fileName,
+                                                final Map<String, String> liveHashes)
+        throws Fabric8ServiceException {
+        List<Future<ApplyResult>> futures = new ArrayList<>();
+        for (final HasMetadata entity : tier) {
+            futures.add(executor.submit(new Callable<ApplyResult>() {
+                @Override
+                public ApplyResult call() throws Exception {
+                    return applyAndMeasure(entity, fileName, liveHashes);
+                }
+            }));
+        }
+
+        List<ApplyResult> results = new ArrayList<>();
+        Fabric8ServiceException error = null;
+        for (Future<ApplyResult> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new Fabric8ServiceException("Interrupted while applying entities", e);
+            } catch (ExecutionException e) {
+                // Wait for the remaining entities of this tier, but report the first error only
+                if (error == null) {
+                    Throwable cause = e.getCause();
+                    error = cause instanceof Fabric8ServiceException ?
+                        (Fabric8ServiceException) cause :
+                        new Fabric8ServiceException(cause.getMessage(), cause);
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+        return results;
+    }
+
+    private ApplyResult applyAndMeasure(HasMetadata entity, String fileName, Map<String, String> liveHashes)
+        throws Fabric8ServiceException {
+        long start = System.currentTimeMillis();
+        try {
+            applyEntity(entity, fileName);
+        } catch (Exception e) {
+            throw new Fabric8ServiceException(
+                String.format("Cannot apply %s %s: %s", entity.getKind(), KubernetesHelper.getName(entity), e.getMessage()), e);
+        }
+        ApplyResult result = new ApplyResult(entity, System.currentTimeMillis() - start, getApplyStatus(entity, liveHashes));
+        log.verbose("Applied %s %s in %d ms", result.getKind(), result.getName(), result.getDurationMillis());
+        return result;
+    }
+
+    private ApplyStatus getApplyStatus(HasMetadata entity, Map<String, String> liveHashes) {
+        if (liveHashes == null || !liveHashes.containsKey(getListKey(entity))) {
+            // Kind could not be looked up
+            return ApplyStatus.applied;
+        }
+        return liveHashes.containsKey(getEntityKey(entity)) ? ApplyStatus.updated : ApplyStatus.created;
+    }
+
+    // Remove all entities whose hash matches the one of the live object and record them as skipped
+    private List<HasMetadata> removeUnchanged(Collection<HasMetadata> entities, Map<String, String> liveHashes,
+                                              List<ApplyResult> results) {
+        List<HasMetadata> ret = new ArrayList<>();
+        for (HasMetadata entity : entities) {
+            if (entity == null) {
+                continue;
+            }
+            String liveHash = liveHashes.get(getEntityKey(entity));
+            if (liveHash != null && liveHash.equals(getDesiredHash(entity))) {
+                log.verbose("Skipping unchanged %s %s", entity.getKind(), KubernetesHelper.getName(entity));
+                results.add(new ApplyResult(entity, 0, ApplyStatus.skipped));
+            } else {
+                ret.add(entity);
+            }
+        }
+        return ret;
+    }
+
+    private String getDesiredHash(HasMetadata entity) {
+        String hash = KubernetesResourceUtil.getSpecHashAnnotation(entity);
+        return hash != null ? hash : KubernetesResourceUtil.computeSpecHash(entity);
+    }
+
+    // Fetch the hash annotations of all live objects with a single list call per kind and namespace.
+    // The returned map contains a marker entry for every list which could be fetched so that
+    // created entities can be distinguished from entities of kinds which can't be looked up.
+    private Map<String, String> fetchLiveHashes(Collection<HasMetadata> entities) {
+        Map<String, String> ret = new HashMap<>();
+        Set<String> listed = new HashSet<>();
+        for (HasMetadata entity : entities) {
+            if (entity == null) {
+                continue;
+            }
+            String listKey = getListKey(entity);
+            if (!listed.add(listKey)) {
+                continue;
+            }
+            String namespace = getNamespace(entity);
+            try {
+                List<? extends HasMetadata> items = listLive(entity.getKind(), namespace);
+                if (items == null) {
+                    log.debug("Cannot lookup live %s objects, applying them unconditionally", entity.getKind());
+                    continue;
+                }
+                ret.put(listKey, "");
+                for (HasMetadata item : items) {
+                    String hash = KubernetesResourceUtil.getSpecHashAnnotation(item);
+                    ret.put(getKey(item.getKind() != null ? item.getKind() : entity.getKind(), namespace,
+                                   KubernetesHelper.getName(item)),
+                            hash != null ? hash : "");
+                }
+            } catch (KubernetesClientException exp) {
+                log.warn("Cannot list %s objects in namespace %s: %s", entity.getKind(), namespace, exp.getMessage());
+            }
+        }
+        return ret;
+    }
+
+    private List<? extends HasMetadata> listLive(String kind, String namespace) {
+        KubernetesClient client = skipUnchangedClient;
+        switch (kind) {
+            case "Service":
+                return client.services().inNamespace(namespace).list().getItems();
+            case "ConfigMap":
+                return client.configMaps().inNamespace(namespace).list().getItems();
+            case "Secret":
+                return client.secrets().inNamespace(namespace).list().getItems();
+            case "ServiceAccount":
+                return client.serviceAccounts().inNamespace(namespace).list().getItems();
+            case "PersistentVolumeClaim":
+                return client.persistentVolumeClaims().inNamespace(namespace).list().getItems();
+            case "ReplicationController":
+                return client.replicationControllers().inNamespace(namespace).list().getItems();
+            case "Deployment":
+                return client.extensions().deployments().inNamespace(namespace).list().getItems();
+            case "ReplicaSet":
+                return client.extensions().replicaSets().inNamespace(namespace).list().getItems();
+            case "DaemonSet":
+                return client.extensions().daemonSets().inNamespace(namespace).list().getItems();
+            case "Ingress":
+                return client.extensions().ingresses().inNamespace(namespace).list().getItems();
+        }
+        OpenShiftClient openShiftClient = controller.getOpenShiftClientOrNull();
+        if (openShiftClient != null) {
+            switch (kind) {
+                case "DeploymentConfig":
+                    return openShiftClient.deploymentConfigs().inNamespace(namespace).list().getItems();
+                case "Route":
+                    return openShiftClient.routes().inNamespace(namespace).list().getItems();
+                case "ImageStream":
+                    return openShiftClient.imageStreams().inNamespace(namespace).list().getItems();
+                case "BuildConfig":
+                    return openShiftClient.buildConfigs().inNamespace(namespace).list().getItems();
+            }
+        }
+        return null;
+    }
+
+    private String getNamespace(HasMetadata entity) {
+        String namespace = KubernetesHelper.getNamespace(entity);
+        return Strings.isNotBlank(namespace) ? namespace : controller.getNamespace();
+    }
+
+    private String getListKey(HasMetadata entity) {
+        return entity.getKind() + "/" + getNamespace(entity);
+    }
+
+    private String getEntityKey(HasMetadata entity) {
+        return getKey(entity.getKind(), getNamespace(entity), KubernetesHelper.getName(entity));
+    }
+
+    private static String getKey(String kind, String namespace, String name) {
+        return kind + "/" + namespace + "/" + name;
+    }
+
+    private void logSummary(List<ApplyResult> results) {
+        long total = 0;
+        ApplyResult slowest = null;
+        Map<ApplyStatus, Integer> counts = new HashMap<>();
+        for (ApplyStatus status : ApplyStatus.values()) {
+            counts.put(status, 0);
+        }
+        for (ApplyResult result : results) {
+            counts.put(result.getStatus(), counts.get(result.getStatus()) + 1);
+            if (result.getStatus() == ApplyStatus.skipped) {
+                continue;
+            }
+            total += result.getDurationMillis();
+            if (slowest == null || result.getDurationMillis() > slowest.getDurationMillis()) {
+                slowest = result;
+            }
+        }
+        int applied = results.size() - counts.get(ApplyStatus.skipped);
+        if (slowest != null) {
+            log.info("Applied %d resources with %d worker%s (%d ms accumulated, slowest: %s %s with %d ms)",
+                     applied, workers, workers == 1 ? "" : "s", total,
+                     slowest.getKind(), slowest.getName(), slowest.getDurationMillis());
+        }
+        if (skipUnchangedClient != null) {
+            int skipped = counts.get(ApplyStatus.skipped);
+            // Estimate the time saved from the average time needed for applying a resource
+            String saved = applied > 0 ? String.format(" (estimated %d ms saved)", skipped * total / applied) : "";
+            // Entities of kinds which can't be looked up are counted as updated
+            log.info("Resources created: %d, updated: %d, skipped as unchanged: %d%s",
+                     counts.get(ApplyStatus.created), counts.get(ApplyStatus.updated) + counts.get(ApplyStatus.applied),
+                     skipped, saved);
+        }
+    }
+
+    // ========================================================================================
+
+    /**
+     * What happened to an entity
+     */
+    public enum ApplyStatus {
+        // applied without knowing whether it existed before
+        applied,
+        created,
+        updated,
+        // unchanged and not applied
+        skipped
+    }
+
+    /**
+     * Timing information about a single applied entity
+     */
+    public static class ApplyResult {
+
+        private final String kind;
+        private final String name;
+        private final long durationMillis;
+        private final ApplyStatus status;
+
+        public ApplyResult(HasMetadata entity, long durationMillis) {
+            this(entity, durationMillis, ApplyStatus.applied);
+        }
+
+        public ApplyResult(HasMetadata entity, long durationMillis, ApplyStatus status) {
+            this.kind = entity.getKind();
+            this.name = KubernetesHelper.getName(entity);
+            this.durationMillis = durationMillis;
+            this.status = status;
+        }
+
+        public ApplyStatus getStatus() {
+            return status;
+        }
+
+        public String getKind() {
+            return kind;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+    }
+}
@@ -16,10 +16,12 @@
 package io.fabric8.maven.core.service;
 
 import java.io.File;
+import java.util.List;
 
 import io.fabric8.kubernetes.api.model.KubernetesListBuilder;
 import io.fabric8.maven.core.config.BuildRecreateMode;
 import io.fabric8.maven.core.config.OpenShiftBuildStrategy;
+import io.fabric8.maven.core.service.openshift.BuildResourceCache;
 import io.fabric8.maven.docker.config.ImageConfiguration;
 import io.fabric8.maven.docker.util.MojoParameters;
 import io.fabric8.maven.docker.util.Task;
@@ -37,6 +39,15 @@ public interface BuildService {
      */
     void build(ImageConfiguration imageConfig) throws Fabric8ServiceException;
 
+    /**
+     * Builds the given images with up to <code>threads</code> builds running at the same time, if
+     * supported by the service. All builds are waited for and the first failure is rethrown.
+     *
+     * @param imageConfigs the images to build
+     * @param threads maximum number of concurrent builds
+     */
+    void build(List<ImageConfiguration> imageConfigs, int threads) throws Fabric8ServiceException;
+
     /**
      * Post processing step called after all images has been build
      * @param config build configuration
@@ -62,6 +73,12 @@ public interface BuildService {
 
         private String buildDirectory;
 
+        private boolean skipUnchangedBuilds;
+
+        private int uploadCompressionLevel;
+
+        private BuildResourceCache buildResourceCache;
+
         private Attacher attacher;
 
         public BuildServiceConfig() {
@@ -95,6 +112,18 @@ public interface BuildService {
             return buildDirectory;
         }
 
+        public boolean isSkipUnchangedBuilds() {
+            return skipUnchangedBuilds;
+        }
+
+        public int getUploadCompressionLevel() {
+            return uploadCompressionLevel;
+        }
+
+        public BuildResourceCache getBuildResourceCache() {
+            return buildResourceCache;
+        }
+
         public Object getArtifactId() {
             return dockerMojoParameters.getProject().getArtifactId();
         }
@@ -151,6 +180,21 @@ public interface BuildService {
                 return this;
             }
 
+            public Builder skipUnchangedBuilds(boolean skipUnchangedBuilds) {
+                config.skipUnchangedBuilds = skipUnchangedBuilds;
+                return this;
+            }
+
+            public Builder uploadCompressionLevel(int uploadCompressionLevel) {
+                config.uploadCompressionLevel = uploadCompressionLevel;
+                return this;
+            }
+
+            public Builder buildResourceCache(BuildResourceCache buildResourceCache) {
+                config.buildResourceCache = buildResourceCache;
+                return this;
+            }
+
             public Builder attacher(Attacher attacher) {
                 config.attacher = attacher;
                 return this;
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.core.service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.fabric8.kubernetes.api.Annotations;
+import io.fabric8.kubernetes.api.KubernetesHelper;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.maven.docker.util.Logger;
+import io.fabric8.utils.Strings;
+
+/**
+ * Resolves the external URLs of services which are exposed by the
+ * <a href="https://github.com/fabric8io/exposecontroller/">exposecontroller</a>.
+ *
+ * All services of a namespace are looked up with a single list call. For exposed services
+ * which don't have an URL yet a single watch on the namespace's services is opened which
+ * completes as soon as all URLs have been published or the timeout has been reached.
+ */
+public class ServiceUrlResolver {
+
+    private final KubernetesClient client;
+    private final Logger log;
+
+    public ServiceUrlResolver(KubernetesClient client, Logger log) {
+        this.client = client;
+        this.log = log;
+    }
+
+    /**
+     * Lookup the expose URLs for all services contained in the given entities.
+     *
+     * @param namespace namespace of the services
+     * @param entities entities to check. Only {@link Service}s are considered
+     * @param waitTimeSeconds how long to wait for URLs of exposed services to appear
+     * @return map from service name to URL for every service with an URL, in the order of the given entities
+     * @throws InterruptedException if interrupted while waiting for the URLs
+     */
+    public Map<String, String> resolveExposeUrls(String namespace, Collection<HasMetadata> entities, long waitTimeSeconds)
+        throws InterruptedException {
+        Set<String> names = new LinkedHashSet<>();
+        final Set<String> pending = new HashSet<>();
+        for (HasMetadata entity : entities) {
+            if (entity instanceof Service) {
+                String name = KubernetesHelper.getName(entity);
+                names.add(name);
+                if (isExposeService((Service) entity)) {
+                    pending.add(name);
+                }
+            }
+        }
+        if (names.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+
+        final Map<String, String> urls = new ConcurrentHashMap<>();
+        ServiceList services = client.services().inNamespace(namespace).list();
+        if (services != null && services.getItems() != null) {
+            for (Service service : services.getItems()) {
+                addUrlIfExposed(service, names, urls, pending);
+            }
+        }
+
+        if (!pending.isEmpty() && waitTimeSeconds > 0) {
+            waitForExposeUrls(namespace, names, urls, pending, waitTimeSeconds);
+        }
+
+        Map<String, String> ret = new LinkedHashMap<>();
+        for (String name : names) {
+            if (urls.containsKey(name)) {
+                ret.put(name, urls.get(name));
+            }
+        }
+        return ret;
+    }
+
+    public static String getExposeUrl(Service service) {
+        return KubernetesHelper.getOrCreateAnnotations(service).get(Annotations.Service.EXPOSE_URL);
+    }
+
+    public static boolean isExposeService(Service service) {
+        String expose = KubernetesHelper.getLabels(service).get("expose");
+        return expose != null && expose.toLowerCase().equals("true");
+    }
+
+    // =============================================================================================
+
+    private void waitForExposeUrls(String namespace, final Set<String> names, final Map<String, String> urls,
+                                   final Set<String> pending, long waitTimeSeconds) throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        Watch watch;
+        try {
+            watch = client.services().inNamespace(namespace).watch(new Watcher<Service>() {
+                @Override
+                public void eventReceived(Action action, Service service) {
+                    if (action == Action.ADDED || action == Action.MODIFIED) {
+                        synchronized (pending) {
+                            addUrlIfExposed(service, names, urls, pending);
+                            if (pending.isEmpty()) {
+                                latch.countDown();
+                            }
+                        }
+                    }
+                }
+
+                @Override
+                public void onClose(KubernetesClientException cause) {
+                    // Nothing more to wait for
+                    latch.countDown();
+                }
+            });
+        } catch (KubernetesClientException exp) {
+            log.warn("Cannot watch services in namespace %s for exposed URLs: %s", namespace, exp.getMessage());
+            return;
+        }
+
+        try {
+            if (!latch.await(waitTimeSeconds, TimeUnit.SECONDS)) {
+                log.debug("No URL published for services %s within %d seconds", pending, waitTimeSeconds);
+            }
+        } finally {
+            watch.close();
+        }
+    }
+
+    private void addUrlIfExposed(Service service, Set<String> names, Map<String, String> urls, Set<String> pending) {
+        String name = KubernetesHelper.getName(service);
+        if (!names.contains(name)) {
+            return;
+        }
+        String url = getExposeUrl(service);
+        if (Strings.isNotBlank(url)) {
+            urls.put(name, url);
+            pending.remove(name);
+        }
+    }
+}
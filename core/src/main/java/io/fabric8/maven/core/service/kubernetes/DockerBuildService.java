@@ -15,6 +15,8 @@
  */
 package io.fabric8.maven.core.service.kubernetes;
 
+import java.util.List;
+
 import io.fabric8.maven.core.service.BuildService;
 import io.fabric8.maven.core.service.Fabric8ServiceException;
 import io.fabric8.maven.docker.config.ImageConfiguration;
@@ -54,6 +56,14 @@ public class DockerBuildService implements BuildService {
         }
     }
 
+    @Override
+    public void build(List<ImageConfiguration> imageConfigs, int threads) throws Fabric8ServiceException {
+        // The docker-maven-plugin services are not designed for concurrent use
+        for (ImageConfiguration imageConfig : imageConfigs) {
+            build(imageConfig);
+        }
+    }
+
     @Override
     public void postProcess(BuildServiceConfig config) {
         // No post processing required
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.core.service.openshift;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Calculates a digest over the content of a tar archive. Only the entry names, modes, link names and
+ * contents are taken into account so that an archive which is recreated from the same files results
+ * in the same digest, even when timestamps or owners of the entries differ.
+ */
+class ArchiveDigest {
+
+    private static final int BLOCK_SIZE = 512;
+
+    private ArchiveDigest() {
+    }
+
+    /**
+     * Calculate the digest of a tar archive
+     *
+     * @param archive tar archive to digest
+     * @param extras additional values which are included in the digest
+     * @return hex encoded SHA-256 digest
+     * @throws IOException if the archive cannot be read or is not a plain tar archive
+     */
+    static String calculate(File archive, String ... extras) throws IOException {
+        MessageDigest digest = createDigest();
+        for (String extra : extras) {
+            digest.update(String.valueOf(extra).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        byte[] header = new byte[BLOCK_SIZE];
+        byte[] buffer = new byte[64 * BLOCK_SIZE];
+        try (InputStream is = new BufferedInputStream(new FileInputStream(archive))) {
+            while (readFully(is, header) && !isEmptyBlock(header)) {
+                // name + mode, size, type flag + link name and the name prefix. Timestamps, owners and the
+                // header checksum are skipped.
+                digest.update(header, 0, 108);
+                digest.update(header, 124, 12);
+                digest.update(header, 156, 101);
+                digest.update(header, 345, 155);
+
+                long size = parseSize(header);
+                long remaining = (size + BLOCK_SIZE - 1) / BLOCK_SIZE * BLOCK_SIZE;
+                long content = size;
+                while (remaining > 0) {
+                    int read = is.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (read < 0) {
+                        throw new IOException("Unexpected end of archive " + archive);
+                    }
+                    digest.update(buffer, 0, (int) Math.min(read, content));
+                    content = Math.max(0, content - read);
+                    remaining -= read;
+                }
+            }
+        }
+        return String.format("%064x", new BigInteger(1, digest.digest()));
+    }
+
+    private static long parseSize(byte[] header) throws IOException {
+        if ((header[124] & 0x80) != 0) {
+            throw new IOException("Binary encoded entry sizes are not supported");
+        }
+        long size = 0;
+        for (int i = 124; i < 136; i++) {
+            byte b = header[i];
+            if (b == 0 || b == ' ') {
+                if (size > 0) {
+                    break;
+                }
+                continue;
+            }
+            if (b < '0' || b > '7') {
+                throw new IOException("Invalid tar header");
+            }
+            size = (size << 3) + (b - '0');
+        }
+        return size;
+    }
+
+    private static boolean isEmptyBlock(byte[] block) {
+        for (byte b : block) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean readFully(InputStream is, byte[] block) throws IOException {
+        int offset = 0;
+        while (offset < block.length) {
+            int read = is.read(block, offset, block.length - offset);
+            if (read < 0) {
+                if (offset == 0) {
+                    return false;
+                }
+                throw new IOException("Truncated tar header");
+            }
+            offset += read;
+        }
+        return true;
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No SHA-256 digest available", e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.core.service.openshift;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesList;
+import io.fabric8.openshift.api.model.BuildConfig;
+import io.fabric8.openshift.api.model.BuildConfigList;
+import io.fabric8.openshift.api.model.ImageStream;
+import io.fabric8.openshift.api.model.ImageStreamList;
+import io.fabric8.openshift.client.OpenShiftClient;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Build configs and image streams of the namespaces used for OpenShift builds within a reactor build.
+ * Instead of looking up the resources for every image, all build configs and image streams of a namespace
+ * are fetched with a single list call each on first access. Changes done by the build service are
+ * recorded so that the cache stays in sync for subsequent builds within the same session.
+ */
+public class BuildResourceCache {
+
+    private final Map<String, Map<String, BuildConfig>> buildConfigs = new HashMap<>();
+    private final Map<String, Map<String, ImageStream>> imageStreams = new HashMap<>();
+
+    /**
+     * Get the cache shared by all modules of the reactor build
+     *
+     * @param session current Maven session
+     * @return cache for this session
+     */
+    public static BuildResourceCache forSession(MavenSession session) {
+        MavenProject topLevelProject = session.getTopLevelProject() != null ?
+            session.getTopLevelProject() : session.getCurrentProject();
+        synchronized (topLevelProject) {
+            String key = BuildResourceCache.class.getName();
+            BuildResourceCache cache = (BuildResourceCache) topLevelProject.getContextValue(key);
+            if (cache == null) {
+                cache = new BuildResourceCache();
+                topLevelProject.setContextValue(key, cache);
+            }
+            return cache;
+        }
+    }
+
+    public synchronized BuildConfig getBuildConfig(OpenShiftClient client, String name) {
+        return getBuildConfigs(client).get(name);
+    }
+
+    public synchronized ImageStream getImageStream(OpenShiftClient client, String name) {
+        return getImageStreams(client).get(name);
+    }
+
+    public synchronized void updateBuildConfig(OpenShiftClient client, BuildConfig buildConfig) {
+        getBuildConfigs(client).put(buildConfig.getMetadata().getName(), buildConfig);
+    }
+
+    public synchronized void removeBuildConfig(OpenShiftClient client, String name) {
+        getBuildConfigs(client).remove(name);
+    }
+
+    public synchronized void removeImageStream(OpenShiftClient client, String name) {
+        getImageStreams(client).remove(name);
+    }
+
+    /**
+     * Record all build configs and image streams of a list which has been created
+     */
+    public synchronized void addCreated(OpenShiftClient client, KubernetesList list) {
+        for (HasMetadata item : list.getItems()) {
+            if (item instanceof BuildConfig) {
+                getBuildConfigs(client).put(item.getMetadata().getName(), (BuildConfig) item);
+            } else if (item instanceof ImageStream) {
+                getImageStreams(client).put(item.getMetadata().getName(), (ImageStream) item);
+            }
+        }
+    }
+
+    private Map<String, BuildConfig> getBuildConfigs(OpenShiftClient client) {
+        String namespace = getNamespaceKey(client);
+        Map<String, BuildConfig> ret = buildConfigs.get(namespace);
+        if (ret == null) {
+            ret = new HashMap<>();
+            BuildConfigList list = client.buildConfigs().list();
+            if (list != null && list.getItems() != null) {
+                for (BuildConfig buildConfig : list.getItems()) {
+                    ret.put(buildConfig.getMetadata().getName(), buildConfig);
+                }
+            }
+            buildConfigs.put(namespace, ret);
+        }
+        return ret;
+    }
+
+    private Map<String, ImageStream> getImageStreams(OpenShiftClient client) {
+        String namespace = getNamespaceKey(client);
+        Map<String, ImageStream> ret = imageStreams.get(namespace);
+        if (ret == null) {
+            ret = new HashMap<>();
+            ImageStreamList list = client.imageStreams().list();
+            if (list != null && list.getItems() != null) {
+                for (ImageStream imageStream : list.getItems()) {
+                    ret.put(imageStream.getMetadata().getName(), imageStream);
+                }
+            }
+            imageStreams.put(namespace, ret);
+        }
+        return ret;
+    }
+
+    private String getNamespaceKey(OpenShiftClient client) {
+        return client.getMasterUrl() + "#" + client.getNamespace();
+    }
+}
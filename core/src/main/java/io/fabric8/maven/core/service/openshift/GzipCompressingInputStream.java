@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.core.service.openshift;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Input stream which returns the gzip compressed content of another stream. The data is compressed
+ * while it is read, so that the compressed content never needs to be stored as a whole.
+ */
+class GzipCompressingInputStream extends InputStream {
+
+    private static final byte[] HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+    private final InputStream in;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+
+    private final byte[] inputBuffer = new byte[64 * 1024];
+    private final byte[] outputBuffer = new byte[64 * 1024];
+    private int outputPos;
+    private int outputLength;
+
+    private boolean headerWritten;
+    private boolean inputFinished;
+    private boolean trailerWritten;
+
+    private long bytesRead;
+    private long bytesWritten;
+
+    GzipCompressingInputStream(InputStream in, int level) {
+        this.in = in;
+        this.deflater = new Deflater(level, true);
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int n = read(b, 0, 1);
+        return n < 0 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (outputPos == outputLength) {
+            if (!fill()) {
+                return -1;
+            }
+        }
+        int n = Math.min(len, outputLength - outputPos);
+        System.arraycopy(outputBuffer, outputPos, b, off, n);
+        outputPos += n;
+        bytesWritten += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        in.close();
+    }
+
+    /**
+     * @return number of uncompressed bytes read from the underlying stream
+     */
+    long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * @return number of compressed bytes returned from this stream
+     */
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    // Fill the output buffer with the next chunk, returns false at the end of the stream
+    private boolean fill() throws IOException {
+        outputPos = 0;
+        outputLength = 0;
+        if (!headerWritten) {
+            System.arraycopy(HEADER, 0, outputBuffer, 0, HEADER.length);
+            outputLength = HEADER.length;
+            headerWritten = true;
+            return true;
+        }
+        if (trailerWritten) {
+            return false;
+        }
+        if (!deflater.finished()) {
+            if (deflater.needsInput() && !inputFinished) {
+                int n = in.read(inputBuffer);
+                if (n < 0) {
+                    inputFinished = true;
+                    deflater.finish();
+                } else if (n > 0) {
+                    crc.update(inputBuffer, 0, n);
+                    bytesRead += n;
+                    deflater.setInput(inputBuffer, 0, n);
+                }
+            }
+            outputLength = deflater.deflate(outputBuffer, 0, outputBuffer.length);
+            return true;
+        }
+        writeTrailer();
+        return true;
+    }
+
+    private void writeTrailer() {
+        writeInt((int) crc.getValue(), 0);
+        writeInt((int) bytesRead, 4);
+        outputLength = 8;
+        trailerWritten = true;
+    }
+
+    private void writeInt(int value, int offset) {
+        for (int i = 0; i < 4; i++) {
+            outputBuffer[offset + i] = (byte) (value >> (i * 8));
+        }
+    }
+}
@@ -19,10 +19,16 @@ package io.fabric8.maven.core.service.openshift;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import io.fabric8.kubernetes.api.KubernetesHelper;
 import io.fabric8.kubernetes.api.model.*;
 import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
 import io.fabric8.maven.core.util.KubernetesResourceUtil;
 import io.fabric8.maven.core.util.ResourceFileType;
 import io.fabric8.maven.docker.util.ImageName;
@@ -46,10 +52,11 @@ public class ImageStreamService {
     private final Logger log;
 
     /**
-     * Retry parameter
+     * How long to wait for a tag to be published and the poll delays used when the image stream can't be watched
      */
-    private final int IMAGE_STREAM_TAG_RETRIES = 15;
-    private final long IMAGE_STREAM_TAG_RETRY_TIMEOUT_IN_MILLIS = 1000;
+    private static final long IMAGE_STREAM_TAG_TIMEOUT_IN_MILLIS = 15000;
+    private static final long IMAGE_STREAM_TAG_MIN_POLL_DELAY_IN_MILLIS = 250;
+    private static final long IMAGE_STREAM_TAG_MAX_POLL_DELAY_IN_MILLIS = 4000;
 
 
     public ImageStreamService(OpenShiftClient client, Logger log) {
@@ -183,51 +190,118 @@ public class ImageStreamService {
     }
 
     private String findTagSha(OpenShiftClient client, String imageStreamName, String namespace) throws MojoExecutionException {
-        ImageStream currentImageStream = null;
-        for (int i = 0; i < IMAGE_STREAM_TAG_RETRIES; i++) {
-            if (i > 0) {
-                log.info("Retrying to find tag on ImageStream %s", imageStreamName);
-                try {
-                    Thread.sleep(IMAGE_STREAM_TAG_RETRY_TIMEOUT_IN_MILLIS);
-                } catch (InterruptedException e) {
-                    log.debug("interrupted", e);
+        ImageStream currentImageStream = client.imageStreams().withName(imageStreamName).get();
+        String tagSha = extractTagSha(currentImageStream);
+        if (tagSha == null) {
+            // Tag not yet published, wait for it to show up
+            AtomicReference<ImageStream> lastSeen = new AtomicReference<>(currentImageStream);
+            tagSha = waitForTagSha(client, imageStreamName, lastSeen);
+            currentImageStream = lastSeen.get();
+        }
+        if (tagSha != null) {
+            log.info("Found tag on ImageStream " + imageStreamName + " tag: " + tagSha);
+            return tagSha;
+        }
+        // No image found, even after waiting:
+        if (currentImageStream == null) {
+            throw new MojoExecutionException("Could not find a current ImageStream with name " + imageStreamName + " in namespace " + namespace);
+        } else {
+            throw new MojoExecutionException("Could not find a tag in the ImageStream " + imageStreamName);
+        }
+    }
+
+    // Watch the image stream until a tag is published. Falls back to polling if the watch cannot be opened.
+    private String waitForTagSha(OpenShiftClient client, String imageStreamName, final AtomicReference<ImageStream> lastSeen) {
+        long deadline = System.currentTimeMillis() + IMAGE_STREAM_TAG_TIMEOUT_IN_MILLIS;
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<String> tagSha = new AtomicReference<>();
+        final AtomicBoolean watchClosed = new AtomicBoolean();
+        Watcher<ImageStream> watcher = new Watcher<ImageStream>() {
+            @Override
+            public void eventReceived(Action action, ImageStream imageStream) {
+                lastSeen.set(imageStream);
+                String sha = extractTagSha(imageStream);
+                if (sha != null) {
+                    tagSha.compareAndSet(null, sha);
+                    latch.countDown();
                 }
             }
-            currentImageStream = client.imageStreams().withName(imageStreamName).get();
-            if (currentImageStream == null) {
-                continue;
+
+            @Override
+            public void onClose(KubernetesClientException cause) {
+                watchClosed.set(true);
+                latch.countDown();
             }
-            ImageStreamStatus status = currentImageStream.getStatus();
-            if (status == null) {
-                continue;
+        };
+
+        log.info("Waiting for tag on ImageStream %s", imageStreamName);
+        try (Watch watch = client.imageStreams().withName(imageStreamName).watch(watcher)) {
+            // Check again in case the tag was published before the watch was established
+            ImageStream imageStream = client.imageStreams().withName(imageStreamName).get();
+            if (imageStream != null) {
+                lastSeen.set(imageStream);
             }
-            List<NamedTagEventList> tags = status.getTags();
-            if (tags == null || tags.isEmpty()) {
-                continue;
+            String sha = extractTagSha(imageStream);
+            if (sha != null) {
+                return sha;
             }
-            // latest tag is the first
-            TAG_EVENT_LIST:
-            for (NamedTagEventList list : tags) {
-                List<TagEvent> items = list.getItems();
-                if (items == null) {
-                    continue TAG_EVENT_LIST;
-                }
+            latch.await(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            if (tagSha.get() != null || !watchClosed.get()) {
+                return tagSha.get();
+            }
+            log.verbose("Watch on ImageStream %s closed, polling for tag", imageStreamName);
+        } catch (KubernetesClientException exp) {
+            log.verbose("Cannot watch ImageStream %s (%s), polling for tag", imageStreamName, exp.getMessage());
+        } catch (InterruptedException exp) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        return pollForTagSha(client, imageStreamName, lastSeen, deadline);
+    }
 
-                // latest item is the first
-                for (TagEvent item : items) {
-                    String image = item.getImage();
-                    if (Strings.isNotBlank(image)) {
-                        log.info("Found tag on ImageStream " + imageStreamName + " tag: " + image);
-                        return image;
-                    }
-                }
+    private String pollForTagSha(OpenShiftClient client, String imageStreamName, AtomicReference<ImageStream> lastSeen, long deadline) {
+        long delay = IMAGE_STREAM_TAG_MIN_POLL_DELAY_IN_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(Math.min(delay, Math.max(0, deadline - System.currentTimeMillis())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            ImageStream imageStream = client.imageStreams().withName(imageStreamName).get();
+            if (imageStream != null) {
+                lastSeen.set(imageStream);
             }
+            String sha = extractTagSha(imageStream);
+            if (sha != null) {
+                return sha;
+            }
+            delay = Math.min(delay * 2, IMAGE_STREAM_TAG_MAX_POLL_DELAY_IN_MILLIS);
         }
-        // No image found, even after several retries:
-        if (currentImageStream == null) {
-            throw new MojoExecutionException("Could not find a current ImageStream with name " + imageStreamName + " in namespace " + namespace);
-        } else {
-            throw new MojoExecutionException("Could not find a tag in the ImageStream " + imageStreamName);
+        return null;
+    }
+
+    // The latest tag is the first, and the latest item is the first within a tag
+    private String extractTagSha(ImageStream imageStream) {
+        if (imageStream == null || imageStream.getStatus() == null) {
+            return null;
+        }
+        List<NamedTagEventList> tags = imageStream.getStatus().getTags();
+        if (tags == null) {
+            return null;
+        }
+        for (NamedTagEventList list : tags) {
+            List<TagEvent> items = list.getItems();
+            if (items == null) {
+                continue;
+            }
+            for (TagEvent item : items) {
+                String image = item.getImage();
+                if (Strings.isNotBlank(image)) {
+                    return image;
+                }
+            }
         }
+        return null;
     }
 }
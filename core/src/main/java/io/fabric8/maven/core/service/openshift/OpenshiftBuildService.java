@@ -16,11 +16,20 @@
 
 package io.fabric8.maven.core.service.openshift;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicReference;
 
 import io.fabric8.kubernetes.api.KubernetesHelper;
@@ -33,6 +42,7 @@ import io.fabric8.kubernetes.client.dsl.LogWatch;
 import io.fabric8.maven.core.config.OpenShiftBuildStrategy;
 import io.fabric8.maven.core.service.BuildService;
 import io.fabric8.maven.core.service.Fabric8ServiceException;
+import io.fabric8.maven.core.util.Constants;
 import io.fabric8.maven.core.util.KubernetesClientUtil;
 import io.fabric8.maven.core.util.KubernetesResourceUtil;
 import io.fabric8.maven.core.util.ResourceFileType;
@@ -43,6 +53,7 @@ import io.fabric8.maven.docker.util.ImageName;
 import io.fabric8.maven.docker.util.Logger;
 import io.fabric8.openshift.api.model.*;
 import io.fabric8.openshift.client.OpenShiftClient;
+import io.fabric8.openshift.client.dsl.InputStreamable;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.plugin.MojoExecutionException;
 
@@ -56,6 +67,7 @@ public class OpenshiftBuildService implements BuildService {
     private final Logger log;
     private ServiceHub dockerServiceHub;
     private BuildServiceConfig config;
+    private final Object prepareLock = new Object();
 
     public OpenshiftBuildService(OpenShiftClient client, Logger log, ServiceHub dockerServiceHub, BuildServiceConfig config) {
         Objects.requireNonNull(client, "client");
@@ -75,21 +87,38 @@ public class OpenshiftBuildService implements BuildService {
         try {
             ImageName imageName = new ImageName(imageConfig.getName());
 
-            // Create tar file with Docker archive
-            File dockerTar = dockerServiceHub.getArchiveService().createDockerBuildArchive(imageConfig, config.getDockerMojoParameters());
+            File dockerTar;
+            String buildName;
+            String buildDigest;
+            // The archive service, the mojo parameters and the logger are shared between
+            // concurrent builds, so the archive and the build resources are prepared one at a time
+            synchronized (prepareLock) {
+                // Create tar file with Docker archive
+                dockerTar = dockerServiceHub.getArchiveService().createDockerBuildArchive(imageConfig, config.getDockerMojoParameters());
 
-            KubernetesListBuilder builder = new KubernetesListBuilder();
+                KubernetesListBuilder builder = new KubernetesListBuilder();
 
-            // Check for buildconfig / imagestream and create them if necessary
-            String buildName = updateOrCreateBuildConfig(config, client, builder, imageConfig);
-            checkOrCreateImageStream(config, client, builder, getImageStreamName(imageName));
-            applyResourceObjects(config, client, builder);
+                // Check for buildconfig / imagestream and create them if necessary
+                buildName = updateOrCreateBuildConfig(config, client, builder, imageConfig);
+                checkOrCreateImageStream(config, client, builder, getImageStreamName(imageName));
+                applyResourceObjects(config, client, builder);
 
-            // Start the actual build
-            Build build = startBuild(client, dockerTar, buildName);
+                buildDigest = config.isSkipUnchangedBuilds() ? calculateBuildDigest(dockerTar, imageConfig) : null;
+            }
+
+            if (buildDigest != null && isBuildUpToDate(client, buildName, imageName, buildDigest)) {
+                log.info("Build archive for %s is unchanged, skipping Build %s", imageName.getFullName(), buildName);
+            } else {
+                // Start the actual build
+                Build build = startBuild(client, dockerTar, buildName);
 
-            // Wait until the build finishes
-            waitForOpenShiftBuildToComplete(client, build);
+                // Wait until the build finishes
+                waitForOpenShiftBuildToComplete(client, build);
+
+                if (buildDigest != null) {
+                    recordBuildDigest(client, buildName, buildDigest);
+                }
+            }
 
             // Create a file with generated image streams
             addImageStreamToFile(getImageStreamFile(config), imageName, client);
@@ -98,6 +127,49 @@ public class OpenshiftBuildService implements BuildService {
         }
     }
 
+    @Override
+    public void build(List<ImageConfiguration> imageConfigs, int threads) throws Fabric8ServiceException {
+        if (imageConfigs.isEmpty()) {
+            return;
+        }
+        int poolSize = Math.max(1, Math.min(threads, imageConfigs.size()));
+        log.info("Building %d images with %d threads", imageConfigs.size(), poolSize);
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (final ImageConfiguration imageConfig : imageConfigs) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        build(imageConfig);
+                        return null;
+                    }
+                }));
+            }
+            // Wait for all builds, but report the first error only
+            Throwable error = null;
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new Fabric8ServiceException("Interrupted while waiting for the builds", e);
+                } catch (ExecutionException e) {
+                    if (error == null) {
+                        error = e.getCause();
+                    }
+                }
+            }
+            if (error instanceof Fabric8ServiceException) {
+                throw (Fabric8ServiceException) error;
+            } else if (error != null) {
+                throw new Fabric8ServiceException("Unable to build the image using the OpenShift build service", error);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private File getImageStreamFile(BuildServiceConfig config) {
         return ResourceFileType.yaml.addExtension(new File(config.getBuildDirectory(), String.format("%s-is", config.getArtifactId())));
     }
@@ -110,8 +182,7 @@ public class OpenshiftBuildService implements BuildService {
     private String updateOrCreateBuildConfig(BuildServiceConfig config, OpenShiftClient client, KubernetesListBuilder builder, ImageConfiguration imageConfig) {
         ImageName imageName = new ImageName(imageConfig.getName());
         String buildName = getS2IBuildName(config, imageName);
-        String imageStreamName = getImageStreamName(imageName);
-        String outputImageStreamTag = imageStreamName + ":" + (imageName.getTag() != null ? imageName.getTag() : "latest");
+        String outputImageStreamTag = getOutputImageStreamTag(imageName);
 
         BuildStrategy buildStrategyResource = createBuildStrategy(imageConfig, config.getOpenshiftBuildStrategy());
         BuildOutput buildOutput = new BuildOutputBuilder().withNewTo()
@@ -120,7 +191,7 @@ public class OpenshiftBuildService implements BuildService {
                 .endTo().build();
 
         // Fetch exsting build config
-        BuildConfig buildConfig = client.buildConfigs().withName(buildName).get();
+        BuildConfig buildConfig = getBuildConfig(client, buildName);
         if (buildConfig != null) {
             // lets verify the BC
             BuildConfigSpec spec = getBuildConfigSpec(buildConfig);
@@ -129,6 +200,9 @@ public class OpenshiftBuildService implements BuildService {
             if (config.getBuildRecreateMode().isBuildConfig()) {
                 // Delete and recreate afresh
                 client.buildConfigs().withName(buildName).delete();
+                if (config.getBuildResourceCache() != null) {
+                    config.getBuildResourceCache().removeBuildConfig(client, buildName);
+                }
                 return createBuildConfig(builder, buildName, buildStrategyResource, buildOutput);
             } else {
                 // Update & return
@@ -181,12 +255,13 @@ public class OpenshiftBuildService implements BuildService {
         // lets check if the strategy or output has changed and if so lets update the BC
         // e.g. the S2I builder image or the output tag and
         if (!Objects.equals(buildStrategy, spec.getStrategy()) || !Objects.equals(buildOutput, spec.getOutput())) {
-            client.buildConfigs().withName(buildName).edit()
+            BuildConfig updated = client.buildConfigs().withName(buildName).edit()
                     .editSpec()
                     .withStrategy(buildStrategy)
                     .withOutput(buildOutput)
                     .endSpec()
                     .done();
+            updateCachedBuildConfig(client, updated);
             log.info("Updating BuildServiceConfig %s for %s strategy", buildName, buildStrategy.getType());
         } else {
             log.info("Using BuildServiceConfig %s for %s strategy", buildName, buildStrategy.getType());
@@ -221,9 +296,12 @@ public class OpenshiftBuildService implements BuildService {
     }
 
     private void checkOrCreateImageStream(BuildServiceConfig config, OpenShiftClient client, KubernetesListBuilder builder, String imageStreamName) {
-        boolean hasImageStream = client.imageStreams().withName(imageStreamName).get() != null;
+        boolean hasImageStream = getImageStream(client, imageStreamName) != null;
         if (hasImageStream && config.getBuildRecreateMode().isImageStream()) {
             client.imageStreams().withName(imageStreamName).delete();
+            if (config.getBuildResourceCache() != null) {
+                config.getBuildResourceCache().removeImageStream(client, imageStreamName);
+            }
             hasImageStream = false;
         }
         if (!hasImageStream) {
@@ -245,16 +323,17 @@ public class OpenshiftBuildService implements BuildService {
 
         if (builder.hasItems()) {
             KubernetesList k8sList = builder.build();
-            client.lists().create(k8sList);
+            KubernetesList created = client.lists().create(k8sList);
+            if (config.getBuildResourceCache() != null) {
+                config.getBuildResourceCache().addCreated(client, created != null ? created : k8sList);
+            }
         }
     }
 
-    private Build startBuild(OpenShiftClient client, File dockerTar, String buildName) {
+    private Build startBuild(OpenShiftClient client, File dockerTar, String buildName) throws IOException {
         log.info("Starting Build %s", buildName);
         try {
-            return client.buildConfigs().withName(buildName)
-                    .instantiateBinary()
-                    .fromFile(dockerTar);
+            return uploadArchive(client.buildConfigs().withName(buildName).instantiateBinary(), dockerTar);
         } catch (KubernetesClientException exp) {
             Status status = exp.getStatus();
             if (status != null) {
@@ -268,6 +347,34 @@ public class OpenshiftBuildService implements BuildService {
         }
     }
 
+    // Upload the archive, compressed on the fly if a compression level is configured
+    private Build uploadArchive(InputStreamable<Build> binaryBuild, File dockerTar) throws IOException {
+        long start = System.nanoTime();
+        int level = config.getUploadCompressionLevel();
+        if (level <= 0) {
+            Build build = binaryBuild.fromFile(dockerTar);
+            logUploadStatistics(dockerTar.length(), dockerTar.length(), start);
+            return build;
+        }
+        try (GzipCompressingInputStream is =
+                 new GzipCompressingInputStream(new BufferedInputStream(new FileInputStream(dockerTar)), Math.min(level, 9))) {
+            Build build = binaryBuild.fromInputStream(is);
+            logUploadStatistics(is.getBytesRead(), is.getBytesWritten(), start);
+            return build;
+        }
+    }
+
+    private void logUploadStatistics(long size, long uploaded, long startNanos) {
+        long millis = Math.max(1, (System.nanoTime() - startNanos) / 1000000);
+        float uploadedMb = (float) uploaded / (1024 * 1024);
+        if (size == uploaded) {
+            log.info("Uploaded %.2f MB in %d ms (%.2f MB/s)", uploadedMb, millis, uploadedMb * 1000 / millis);
+        } else {
+            log.info("Uploaded %.2f MB compressed from %.2f MB (%d%%) in %d ms (%.2f MB/s)",
+                     uploadedMb, (float) size / (1024 * 1024), size > 0 ? uploaded * 100 / size : 100, millis, uploadedMb * 1000 / millis);
+        }
+    }
+
     private void waitForOpenShiftBuildToComplete(OpenShiftClient client, Build build) throws MojoExecutionException {
         final CountDownLatch latch = new CountDownLatch(1);
         final CountDownLatch logTerminateLatch = new CountDownLatch(1);
@@ -362,13 +469,76 @@ public class OpenshiftBuildService implements BuildService {
         }
     }
 
-    private void addImageStreamToFile(File imageStreamFile, ImageName imageName, OpenShiftClient client) throws MojoExecutionException {
+    // Digest over the build archive content and everything else which influences the build result
+    String calculateBuildDigest(File dockerTar, ImageConfiguration imageConfig) {
+        try {
+            return ArchiveDigest.calculate(dockerTar,
+                                           String.valueOf(createBuildStrategy(imageConfig, config.getOpenshiftBuildStrategy())),
+                                           getOutputImageStreamTag(new ImageName(imageConfig.getName())));
+        } catch (IOException exp) {
+            log.warn("Cannot calculate digest of build archive %s: %s", dockerTar, exp.getMessage());
+            return null;
+        }
+    }
+
+    // A build is up to date if the last successful build was done from the same archive and its image is still available
+    private boolean isBuildUpToDate(OpenShiftClient client, String buildName, ImageName imageName, String buildDigest) {
+        BuildConfig buildConfig = getBuildConfig(client, buildName);
+        if (buildConfig == null || buildConfig.getMetadata() == null || buildConfig.getMetadata().getAnnotations() == null ||
+            !buildDigest.equals(buildConfig.getMetadata().getAnnotations().get(Constants.BUILD_DIGEST_ANNOTATION))) {
+            return false;
+        }
+        ImageStream imageStream = client.imageStreams().withName(getImageStreamName(imageName)).get();
+        if (imageStream == null || imageStream.getStatus() == null || imageStream.getStatus().getTags() == null) {
+            return false;
+        }
+        String tag = imageName.getTag() != null ? imageName.getTag() : "latest";
+        for (NamedTagEventList tagEvents : imageStream.getStatus().getTags()) {
+            if (tag.equals(tagEvents.getTag()) && tagEvents.getItems() != null && !tagEvents.getItems().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void recordBuildDigest(OpenShiftClient client, String buildName, String buildDigest) {
+        try {
+            BuildConfig updated = client.buildConfigs().withName(buildName).edit()
+                  .editMetadata()
+                  .addToAnnotations(Constants.BUILD_DIGEST_ANNOTATION, buildDigest)
+                  .endMetadata()
+                  .done();
+            updateCachedBuildConfig(client, updated);
+        } catch (KubernetesClientException exp) {
+            log.warn("Cannot record build digest on BuildConfig %s: %s", buildName, exp.getMessage());
+        }
+    }
+
+    // Synchronized as parallel builds append to the same file
+    private synchronized void addImageStreamToFile(File imageStreamFile, ImageName imageName, OpenShiftClient client) throws MojoExecutionException {
         ImageStreamService imageStreamHandler = new ImageStreamService(client, log);
         imageStreamHandler.appendImageStreamResource(imageName, imageStreamFile);
     }
 
     // == Utility methods ==========================
 
+    // Build configs and image streams are taken from the reactor wide cache if available
+    private BuildConfig getBuildConfig(OpenShiftClient client, String name) {
+        BuildResourceCache cache = config.getBuildResourceCache();
+        return cache != null ? cache.getBuildConfig(client, name) : client.buildConfigs().withName(name).get();
+    }
+
+    private ImageStream getImageStream(OpenShiftClient client, String name) {
+        BuildResourceCache cache = config.getBuildResourceCache();
+        return cache != null ? cache.getImageStream(client, name) : client.imageStreams().withName(name).get();
+    }
+
+    private void updateCachedBuildConfig(OpenShiftClient client, BuildConfig buildConfig) {
+        if (config.getBuildResourceCache() != null && buildConfig != null) {
+            config.getBuildResourceCache().updateBuildConfig(client, buildConfig);
+        }
+    }
+
     private String getS2IBuildName(BuildServiceConfig config, ImageName imageName) {
         return imageName.getSimpleName() + config.getS2iBuildNameSuffix();
     }
@@ -377,6 +547,10 @@ public class OpenshiftBuildService implements BuildService {
         return name.getSimpleName();
     }
 
+    private String getOutputImageStreamTag(ImageName name) {
+        return getImageStreamName(name) + ":" + (name.getTag() != null ? name.getTag() : "latest");
+    }
+
     private String getMapValueWithDefault(Map<String, String> map, OpenShiftBuildStrategy.SourceStrategy strategy, String defaultValue) {
         return getMapValueWithDefault(map, strategy.key(), defaultValue);
     }
@@ -20,9 +20,12 @@ import java.io.*;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import io.fabric8.maven.docker.util.Logger;
-import javassist.*;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.maven.project.MavenProject;
 
@@ -106,6 +109,21 @@ public class ClassUtil {
      * @exception IOException if something goes wrong
      */
     public static List<String> findMainClasses(File rootDir) throws IOException {
+        return findMainClasses(rootDir, null);
+    }
+
+    /**
+     * Find all classes below a certain directory which contain main() classes. The result for each class
+     * file is stored in an index file together with the file's modification time and size, so that
+     * subsequent calls only need to examine class files which have been changed.
+     *
+     * @param rootDir the directory to start from
+     * @param indexFile file for storing the index or null if no index should be used
+     * @return List of classes with "public void static main(String[] args)" methods, sorted by name.
+     *         Can be empty, but not null.
+     * @exception IOException if something goes wrong
+     */
+    public static List<String> findMainClasses(File rootDir, File indexFile) throws IOException {
         List<String> ret = new ArrayList<>();
         if (!rootDir.exists()) {
             return ret;
@@ -113,7 +131,43 @@ public class ClassUtil {
         if (!rootDir.isDirectory()) {
             throw new IllegalArgumentException(String.format("Path %s is not a directory",rootDir.getPath()));
         }
-        findClasses(ret, rootDir, rootDir.getAbsolutePath() + "/");
+        List<String> classFiles = new ArrayList<>();
+        findClassFiles(classFiles, rootDir, "");
+
+        Properties index = loadMainClassIndex(indexFile);
+        Properties newIndex = new Properties();
+        Map<String, Future<Boolean>> scans = new LinkedHashMap<>();
+        for (final String path : classFiles) {
+            final File classFile = new File(rootDir, path);
+            String fileStamp = classFile.lastModified() + ":" + classFile.length() + ":";
+            String entry = index.getProperty(path);
+            if (entry != null && entry.startsWith(fileStamp)) {
+                newIndex.setProperty(path, entry);
+                if (entry.endsWith(":true")) {
+                    ret.add(convertToClass(path));
+                }
+            } else {
+                scans.put(path, CLASS_SCAN_POOL.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws IOException {
+                        return hasMainMethod(classFile);
+                    }
+                }));
+                newIndex.setProperty(path, fileStamp);
+            }
+        }
+
+        for (Map.Entry<String, Future<Boolean>> scan : scans.entrySet()) {
+            boolean hasMain = getScanResult(scan.getValue());
+            newIndex.setProperty(scan.getKey(), newIndex.getProperty(scan.getKey()) + hasMain);
+            if (hasMain) {
+                ret.add(convertToClass(scan.getKey()));
+            }
+        }
+        if (!newIndex.equals(index)) {
+            storeMainClassIndex(indexFile, newIndex);
+        }
+        Collections.sort(ret);
         return ret;
     }
 
@@ -133,39 +187,175 @@ public class ClassUtil {
 		}
 	};
 
+    // Used for examining class files concurrently
+    private static final ForkJoinPool CLASS_SCAN_POOL = new ForkJoinPool();
+
+    // Descriptor of "void main(String[] args)"
+    private static final String MAIN_METHOD_DESCRIPTOR = "([Ljava/lang/String;)V";
 
-    private static void findClasses(List<String> classes, File dir, String prefix) throws IOException {
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_STATIC = 0x0008;
+
+    private static void findClassFiles(List<String> classFiles, File dir, String prefix) throws IOException {
         for (File subDir : dir.listFiles(DIR_FILTER)) {
-            findClasses(classes, subDir, prefix);
+            findClassFiles(classFiles, subDir, prefix + subDir.getName() + "/");
         }
 
         for (File classFile : dir.listFiles(CLASS_FILE_FILTER)) {
-            try (InputStream is = new FileInputStream(classFile)) {
-                if (hasMainMethod(is)) {
-                    classes.add(convertToClass(classFile.getAbsolutePath(), prefix));
-                }
-            }
+            classFiles.add(prefix + classFile.getName());
         }
     }
 
-    private static boolean hasMainMethod(InputStream is) throws IOException {
+    private static boolean getScanResult(Future<Boolean> scan) throws IOException {
         try {
-            ClassPool pool = ClassPool.getDefault();
-            CtClass ctClass = pool.makeClass(is);
-            CtClass stringClass = pool.get("java.lang.String[]");
-            CtMethod mainMethod = ctClass.getDeclaredMethod("main", new CtClass[] { stringClass });
-            return mainMethod.getReturnType() == CtClass.voidType &&
-                   Modifier.isStatic(mainMethod.getModifiers()) &&
-                   Modifier.isPublic(mainMethod.getModifiers());
-        } catch (NotFoundException e) {
+            return scan.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while examining class files");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IllegalStateException("Cannot examine class file: " + cause, cause);
+        }
+    }
+
+    private static Properties loadMainClassIndex(File indexFile) {
+        Properties index = new Properties();
+        if (indexFile != null && indexFile.isFile()) {
+            try (InputStream is = new FileInputStream(indexFile)) {
+                index.load(is);
+            } catch (IOException e) {
+                // The index is only an optimization, so start from scratch
+                index.clear();
+            }
+        }
+        return index;
+    }
+
+    private static void storeMainClassIndex(File indexFile, Properties index) {
+        if (indexFile == null) {
+            return;
+        }
+        File dir = indexFile.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            return;
+        }
+        try (OutputStream os = new FileOutputStream(indexFile)) {
+            index.store(os, "Main class index: <path>=<modification time>:<size>:<has main method>");
+        } catch (IOException e) {
+            // Ignored, the classes will be examined again next time
+        }
+    }
+
+    /**
+     * Check whether a class file declares a <code>public static void main(String[])</code> method. Only
+     * the constant pool and the method table of the class file are read, without loading the class.
+     */
+    private static boolean hasMainMethod(File classFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(classFile)))) {
+            if (in.readInt() != 0xCAFEBABE) {
+                throw new IOException("Invalid class file " + classFile);
+            }
+            // minor & major version
+            skipFully(in, 4);
+
+            String[] utf8Constants = readUtf8Constants(in, classFile);
+
+            // access flags, this class, super class
+            skipFully(in, 6);
+            int interfacesCount = in.readUnsignedShort();
+            skipFully(in, interfacesCount * 2);
+
+            int fieldsCount = in.readUnsignedShort();
+            for (int i = 0; i < fieldsCount; i++) {
+                skipFully(in, 6);
+                skipAttributes(in);
+            }
+
+            int methodsCount = in.readUnsignedShort();
+            for (int i = 0; i < methodsCount; i++) {
+                int accessFlags = in.readUnsignedShort();
+                String name = utf8Constants[in.readUnsignedShort()];
+                String descriptor = utf8Constants[in.readUnsignedShort()];
+                if ((accessFlags & (ACC_PUBLIC | ACC_STATIC)) == (ACC_PUBLIC | ACC_STATIC) &&
+                    "main".equals(name) && MAIN_METHOD_DESCRIPTOR.equals(descriptor)) {
+                    return true;
+                }
+                skipAttributes(in);
+            }
             return false;
+        } catch (EOFException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Invalid class file " + classFile, e);
+        }
+    }
+
+    // Read the constant pool but keep only the UTF8 entries, indexed by their constant pool index
+    private static String[] readUtf8Constants(DataInputStream in, File classFile) throws IOException {
+        int count = in.readUnsignedShort();
+        String[] ret = new String[count];
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1:  // Utf8
+                    ret[i] = in.readUTF();
+                    break;
+                case 7:  // Class
+                case 8:  // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    skipFully(in, 2);
+                    break;
+                case 15: // MethodHandle
+                    skipFully(in, 3);
+                    break;
+                case 3:  // Integer
+                case 4:  // Float
+                case 9:  // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    skipFully(in, 4);
+                    break;
+                case 5:  // Long
+                case 6:  // Double
+                    skipFully(in, 8);
+                    // Takes two entries in the constant pool
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag + " in class file " + classFile);
+            }
+        }
+        return ret;
+    }
+
+    private static void skipAttributes(DataInputStream in) throws IOException {
+        int attributesCount = in.readUnsignedShort();
+        for (int i = 0; i < attributesCount; i++) {
+            skipFully(in, 2);
+            int length = in.readInt();
+            skipFully(in, length);
+        }
+    }
+
+    private static void skipFully(DataInputStream in, int length) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            int skipped = in.skipBytes(remaining);
+            if (skipped <= 0) {
+                throw new EOFException();
+            }
+            remaining -= skipped;
         }
     }
 
-    private static String convertToClass(String name, String prefix) {
-        String ret = name.replaceAll("[/\\\\]", ".");
-        ret = ret.substring(0, name.length() - ".class".length());
-        return ret.substring(prefix.length());
+    private static String convertToClass(String path) {
+        return path.substring(0, path.length() - ".class".length()).replace('/', '.');
     }
 
 
@@ -179,7 +369,7 @@ public class ClassUtil {
                 compileJars.add(new File(element).toURI().toURL());
             }
 
-            return new URLClassLoader(compileJars.toArray(new URL[compileJars.size()]),
+            return new IndexedURLClassLoader(compileJars.toArray(new URL[compileJars.size()]),
                     PluginServiceFactory.class.getClassLoader());
 
         } catch (Exception e) {
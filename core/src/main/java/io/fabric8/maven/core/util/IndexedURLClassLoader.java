@@ -0,0 +1,185 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.core.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * URL class loader which looks up resources with an index of all jar entries instead of probing
+ * every jar of the class path. The index is created on the first resource lookup, classes are
+ * still loaded by the {@link URLClassLoader} itself.
+ *
+ * The entries of a jar are only read once per build, the index of a jar is shared between all
+ * class loaders as long as the jar file is not modified.
+ */
+class IndexedURLClassLoader extends URLClassLoader {
+
+    private static final int MAX_CACHED_JARS = 2000;
+    private static final Map<String, Set<String>> JAR_INDEX_CACHE =
+        new LinkedHashMap<String, Set<String>>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Set<String>> eldest) {
+                return size() > MAX_CACHED_JARS;
+            }
+        };
+
+    // Index per class path element, null for directories and anything else which is not a jar
+    private volatile List<Set<String>> index;
+
+    IndexedURLClassLoader(URL[] urls, ClassLoader parent) {
+        super(urls, parent);
+    }
+
+    IndexedURLClassLoader(URL[] urls) {
+        super(urls);
+    }
+
+    @Override
+    public URL findResource(String name) {
+        List<URL> found = lookup(name, true);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    @Override
+    public Enumeration<URL> findResources(String name) throws IOException {
+        return Collections.enumeration(lookup(name, false));
+    }
+
+    /**
+     * Check whether a class can be found on the class path or by the parent class loader, without
+     * loading the class
+     *
+     * @param className fully qualified class name
+     * @return true if the class file exists
+     */
+    boolean hasClass(String className) {
+        String path = className.replace('.', '/') + ".class";
+        if (!lookup(path, true).isEmpty()) {
+            return true;
+        }
+        ClassLoader parent = getParent();
+        return parent != null && parent.getResource(path) != null;
+    }
+
+    private List<URL> lookup(String name, boolean firstOnly) {
+        String path = name.startsWith("/") ? name.substring(1) : name;
+        URL[] urls = getURLs();
+        List<Set<String>> entries = getIndex(urls);
+        List<URL> ret = new ArrayList<>();
+        for (int i = 0; i < urls.length; i++) {
+            URL found = lookup(urls[i], entries.get(i), path);
+            if (found != null) {
+                ret.add(found);
+                if (firstOnly) {
+                    break;
+                }
+            }
+        }
+        return ret;
+    }
+
+    private URL lookup(URL url, Set<String> jarEntries, String path) {
+        try {
+            if (jarEntries != null) {
+                return jarEntries.contains(path) ? new URL("jar:" + url + "!/" + path) : null;
+            }
+            File file = toFile(url);
+            if (file != null && file.isDirectory()) {
+                File resource = new File(file, path);
+                return resource.exists() ? resource.toURI().toURL() : null;
+            }
+        } catch (MalformedURLException exp) {
+            // Not a valid resource name
+        }
+        return null;
+    }
+
+    private List<Set<String>> getIndex(URL[] urls) {
+        List<Set<String>> ret = index;
+        if (ret == null) {
+            synchronized (this) {
+                ret = index;
+                if (ret == null) {
+                    ret = new ArrayList<>();
+                    for (URL url : urls) {
+                        ret.add(indexJar(url));
+                    }
+                    index = ret;
+                }
+            }
+        }
+        return ret;
+    }
+
+    private Set<String> indexJar(URL url) {
+        File file = toFile(url);
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        String key = file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified();
+        synchronized (JAR_INDEX_CACHE) {
+            Set<String> cached = JAR_INDEX_CACHE.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Set<String> entries = new HashSet<>();
+        try (JarFile jar = new JarFile(file)) {
+            Enumeration<JarEntry> jarEntries = jar.entries();
+            while (jarEntries.hasMoreElements()) {
+                String entryName = jarEntries.nextElement().getName();
+                entries.add(entryName);
+                if (entryName.endsWith("/")) {
+                    // Directories can be looked up with and without trailing slash
+                    entries.add(entryName.substring(0, entryName.length() - 1));
+                }
+            }
+        } catch (IOException exp) {
+            // Not a jar, no resources from this element
+        }
+        entries = Collections.unmodifiableSet(entries);
+        synchronized (JAR_INDEX_CACHE) {
+            JAR_INDEX_CACHE.put(key, entries);
+        }
+        return entries;
+    }
+
+    private File toFile(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException exp) {
+            return null;
+        }
+    }
+}
@@ -16,28 +16,42 @@
 
 package io.fabric8.maven.core.util;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FilenameFilter;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.math.BigInteger;
 import java.net.URL;
 import java.net.UnknownHostException;
-import java.nio.charset.Charset;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -52,6 +66,7 @@ import io.fabric8.kubernetes.api.model.EnvVarBuilder;
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.Job;
 import io.fabric8.kubernetes.api.model.JobSpec;
+import io.fabric8.kubernetes.api.model.KubernetesList;
 import io.fabric8.kubernetes.api.model.KubernetesListBuilder;
 import io.fabric8.kubernetes.api.model.KubernetesResource;
 import io.fabric8.kubernetes.api.model.LabelSelector;
@@ -81,15 +96,20 @@ import io.fabric8.openshift.api.model.BuildStatus;
 import io.fabric8.openshift.api.model.DeploymentConfig;
 import io.fabric8.openshift.api.model.DeploymentConfigSpec;
 import io.fabric8.openshift.api.model.Template;
-import io.fabric8.utils.Files;
 import io.fabric8.utils.Strings;
 
 import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 
 import org.apache.maven.plugin.MojoExecutionException;
@@ -100,6 +120,7 @@ import static io.fabric8.kubernetes.api.KubernetesHelper.getName;
 import static io.fabric8.kubernetes.api.KubernetesHelper.parseDate;
 import static io.fabric8.maven.core.util.Constants.RESOURCE_APP_CATALOG_ANNOTATION;
 import static io.fabric8.maven.core.util.Constants.RESOURCE_SOURCE_URL_ANNOTATION;
+import static io.fabric8.maven.core.util.Constants.RESOURCE_SPEC_HASH_ANNOTATION;
 import static io.fabric8.utils.Strings.isNullOrBlank;
 
 /**
@@ -134,16 +155,75 @@ public class KubernetesResourceUtil {
     public static KubernetesListBuilder readResourceFragmentsFrom(ResourceVersioning apiVersions,
                                                                   String defaultName,
                                                                   File[] resourceFiles) throws IOException {
+        return readResourceFragmentsFrom(apiVersions, defaultName, resourceFiles, null);
+    }
+
+    /**
+     * Read all Kubernetes resource fragments from a directory and create a {@link KubernetesListBuilder} which
+     * can be adapted later. Multiple fragments are parsed in parallel, but are added to the list in the order
+     * of the given files.
+     *
+     * @param apiVersions the api versions to use
+     * @param defaultName the default name to use when none is given
+     * @param resourceFiles files to add.
+     * @param log logger for reporting the parse time of each file, can be null
+     * @return the list builder
+     * @throws IOException
+     */
+    public static KubernetesListBuilder readResourceFragmentsFrom(final ResourceVersioning apiVersions,
+                                                                  final String defaultName,
+                                                                  File[] resourceFiles,
+                                                                  final Logger log) throws IOException {
         KubernetesListBuilder builder = new KubernetesListBuilder();
-        if (resourceFiles != null) {
+        if (resourceFiles == null) {
+            return builder;
+        }
+        if (resourceFiles.length < 2) {
             for (File file : resourceFiles) {
-                HasMetadata resource = getResource(apiVersions, file, defaultName);
-                builder.addToItems(resource);
+                builder.addToItems(getResourceAndMeasure(apiVersions, file, defaultName, log));
+            }
+            return builder;
+        }
+
+        List<Callable<HasMetadata>> tasks = new ArrayList<>();
+        for (final File file : resourceFiles) {
+            tasks.add(new Callable<HasMetadata>() {
+                @Override
+                public HasMetadata call() throws IOException {
+                    return getResourceAndMeasure(apiVersions, file, defaultName, log);
+                }
+            });
+        }
+        // invokeAll() returns the futures in the order of the tasks
+        for (Future<HasMetadata> future : FRAGMENT_POOL.invokeAll(tasks)) {
+            try {
+                builder.addToItems(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while reading resource fragments", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException(cause.getMessage(), cause);
             }
         }
         return builder;
     }
 
+    private static HasMetadata getResourceAndMeasure(ResourceVersioning apiVersions, File file, String defaultName, Logger log)
+        throws IOException {
+        long start = System.currentTimeMillis();
+        HasMetadata resource = getResource(apiVersions, file, defaultName);
+        if (log != null) {
+            log.verbose("Parsed resource fragment %s in %d ms", file.getName(), System.currentTimeMillis() - start);
+        }
+        return resource;
+    }
+
     /**
      * Read a Kubernetes resource fragment and add meta information extracted from the filename
      * to the resource descriptor. I.e. the following elements are added if not provided in the fragment:
@@ -162,9 +242,8 @@ public class KubernetesResourceUtil {
     public static HasMetadata getResource(ResourceVersioning apiVersions,
                                           File file, String appName) throws IOException {
         Map<String,Object> fragment = readAndEnrichFragment(apiVersions, file, appName);
-        ObjectMapper mapper = new ObjectMapper();
         try {
-            return mapper.convertValue(fragment, HasMetadata.class);
+            return FRAGMENT_MAPPER.convertValue(fragment, HasMetadata.class);
         } catch (ClassCastException exp) {
             throw new IllegalArgumentException(String.format("Resource fragment %s has an invalid syntax (%s)", file.getPath(), exp.getMessage()));
         }
@@ -179,31 +258,103 @@ public class KubernetesResourceUtil {
     }
 
     public static File writeResource(Object resource, File target, ResourceFileType resourceFileType) throws IOException {
+        return writeResource(resource, target, resourceFileType, false);
+    }
+
+    /**
+     * Write a resource to a file whose extension is added according to the file type.
+     *
+     * @param resource resource to write
+     * @param target file without extension
+     * @param resourceFileType file type
+     * @param multiDocument whether to write the items of a {@link KubernetesList} as separate YAML documents
+     *                      instead of a single list object. Ignored for JSON.
+     * @return the file written
+     */
+    public static File writeResource(Object resource, File target, ResourceFileType resourceFileType, boolean multiDocument)
+        throws IOException {
         File outputFile = resourceFileType.addExtension(target);
-        return writeResourceFile(resource, outputFile, resourceFileType);
+        return writeResourceFile(resource, outputFile, resourceFileType, multiDocument);
     }
 
     public static File writeResourceFile(Object resource, File outputFile, ResourceFileType resourceFileType) throws IOException {
-        String serialized = serializeAsString(resource, resourceFileType);
-        Files.writeToFile(outputFile, serialized, Charset.defaultCharset());
+        return writeResourceFile(resource, outputFile, resourceFileType, false);
+    }
+
+    /**
+     * Serialize a resource directly to a file without building up the serialized form in memory.
+     *
+     * @param resource resource to write
+     * @param outputFile file to write to. Parent directories are created if necessary.
+     * @param resourceFileType file type
+     * @param multiDocument whether to write the items of a {@link KubernetesList} as separate YAML documents
+     *                      instead of a single list object. Ignored for JSON.
+     * @return the file written
+     */
+    public static File writeResourceFile(Object resource, File outputFile, ResourceFileType resourceFileType,
+                                         boolean multiDocument) throws IOException {
+        File dir = outputFile.getAbsoluteFile().getParentFile();
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create directory " + dir);
+        }
+        ObjectWriter writer = RESOURCE_WRITERS.get(resourceFileType);
+        try (FileChannel channel = FileChannel.open(outputFile.toPath(), StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE)) {
+            // The YAML generator closes its target even when AUTO_CLOSE_TARGET is disabled
+            OutputStream target = new NonClosingOutputStream(out);
+            if (multiDocument && resourceFileType == ResourceFileType.yaml && resource instanceof KubernetesList) {
+                // Each item gets its own generator which starts a new document. The YAML generator
+                // can't write multiple root values, so a SequenceWriter can't be used here.
+                for (HasMetadata item : ((KubernetesList) resource).getItems()) {
+                    writer.writeValue(target, item);
+                }
+            } else {
+                writer.writeValue(target, resource);
+            }
+        }
         return outputFile;
     }
 
+    // Stream which only flushes on close so that multiple generators can write to the same stream
+    private static class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+
     private static String serializeAsString(Object resource, ResourceFileType resourceFileType) throws JsonProcessingException {
-        ObjectMapper mapper = resourceFileType.getObjectMapper()
-                                              .enable(SerializationFeature.INDENT_OUTPUT)
-                                              .disable(SerializationFeature.WRITE_EMPTY_JSON_ARRAYS)
-                                              .disable(SerializationFeature.WRITE_NULL_MAP_VALUES);
-        return mapper.writeValueAsString(resource);
+        return RESOURCE_WRITERS.get(resourceFileType).writeValueAsString(resource);
+    }
+
+    private static Map<ResourceFileType, ObjectWriter> createResourceWriters() {
+        Map<ResourceFileType, ObjectWriter> ret = new EnumMap<>(ResourceFileType.class);
+        for (ResourceFileType type : ResourceFileType.values()) {
+            ObjectMapper mapper = type.getObjectMapper()
+                                      .enable(SerializationFeature.INDENT_OUTPUT)
+                                      .disable(SerializationFeature.WRITE_EMPTY_JSON_ARRAYS)
+                                      .disable(SerializationFeature.WRITE_NULL_MAP_VALUES);
+            ret.put(type, mapper.writer());
+        }
+        return ret;
     }
 
     public static File[] listResourceFragments(File resourceDir) {
-        final Pattern filenamePattern = Pattern.compile(FILENAME_PATTERN);
-        final Pattern exludePattern = Pattern.compile(PROFILES_PATTERN);
         return resourceDir.listFiles(new FilenameFilter() {
             @Override
             public boolean accept(File dir, String name) {
-                return filenamePattern.matcher(name).matches() && !exludePattern.matcher(name).matches();
+                return FILENAME_FILTER_PATTERN.matcher(name).matches() && !PROFILES_FILTER_PATTERN.matcher(name).matches();
             }
         });
     }
@@ -270,14 +421,42 @@ public class KubernetesResourceUtil {
         }
     }
 
+    // Metadata which is set by the server and not part of the desired state
+    private static final String[] RUNTIME_METADATA_FIELDS = {
+        "resourceVersion", "uid", "selfLink", "creationTimestamp", "generation", "namespace"
+    };
+
+    private static final ObjectMapper SPEC_HASH_MAPPER =
+        new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
     private static final String FILENAME_PATTERN = "^(?<name>.*?)(-(?<type>[^-]+))?\\.(?<ext>yaml|yml|json)$";
     private static final String PROFILES_PATTERN = "^profiles?\\.ya?ml$";
 
+    // Compiled patterns are thread safe and shared by all fragment readers
+    private static final Pattern FILENAME_FILTER_PATTERN = Pattern.compile(FILENAME_PATTERN);
+    private static final Pattern FILENAME_MATCH_PATTERN = Pattern.compile(FILENAME_PATTERN, Pattern.CASE_INSENSITIVE);
+    private static final Pattern PROFILES_FILTER_PATTERN = Pattern.compile(PROFILES_PATTERN);
+
+    // Readers and mappers are thread safe once configured
+    private static final TypeReference<HashMap<String,Object>> FRAGMENT_TYPE = new TypeReference<HashMap<String,Object>>() {};
+    private static final ObjectReader JSON_FRAGMENT_READER = new ObjectMapper(new JsonFactory()).readerFor(FRAGMENT_TYPE);
+    private static final ObjectReader YAML_FRAGMENT_READER = new ObjectMapper(new YAMLFactory()).readerFor(FRAGMENT_TYPE);
+    private static final ObjectMapper FRAGMENT_MAPPER = new ObjectMapper();
+
+    // Reader for manifests in YAML or JSON format
+    private static final ObjectMapper MANIFEST_MAPPER = KubernetesHelper.createYamlObjectMapper();
+
+    // Writers are immutable and can be shared
+    private static final Map<ResourceFileType, ObjectWriter> RESOURCE_WRITERS = createResourceWriters();
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    // Pool for parsing fragments in parallel. Its worker threads are daemon threads.
+    private static final ForkJoinPool FRAGMENT_POOL = new ForkJoinPool();
+
     // Read fragment and add default values
     private static Map<String, Object> readAndEnrichFragment(ResourceVersioning apiVersions,
                                                              File file, String appName) throws IOException {
-        Pattern pattern = Pattern.compile(FILENAME_PATTERN, Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(file.getName());
+        Matcher matcher = FILENAME_MATCH_PATTERN.matcher(file.getName());
         if (!matcher.matches()) {
             throw new IllegalArgumentException(
                 String.format("Resource file name '%s' does not match pattern <name>-<type>.(yaml|yml|json)", file.getName()));
@@ -360,10 +539,9 @@ public class KubernetesResourceUtil {
     }
 
     private static Map<String,Object> readFragment(File file, String ext) throws IOException {
-        ObjectMapper mapper = new ObjectMapper("json".equals(ext) ? new JsonFactory() : new YAMLFactory());
-        TypeReference<HashMap<String,Object>> typeRef = new TypeReference<HashMap<String,Object>>() {};
+        ObjectReader reader = "json".equals(ext) ? JSON_FRAGMENT_READER : YAML_FRAGMENT_READER;
         try {
-            Map<String, Object> ret = mapper.readValue(file, typeRef);
+            Map<String, Object> ret = reader.readValue(file);
             return ret != null ? ret : new HashMap<String, Object>();
         } catch (JsonProcessingException e) {
             throw new JsonMappingException(String.format("[%s] %s", file, e.getMessage()), e.getLocation(), e);
@@ -798,27 +976,196 @@ public class KubernetesResourceUtil {
         return "true".equals(catalogAnnotation);
     }
 
+    /**
+     * Calculate a hash over the desired state of a resource. Runtime information like the status,
+     * the resource version or the hash annotation itself are not taken into account. Map keys are
+     * sorted so that the hash does not depend on the serialization order.
+     *
+     * @param item resource to calculate the hash for
+     * @return hex encoded SHA-256 hash
+     */
+    public static String computeSpecHash(HasMetadata item) {
+        Map<String, Object> normalized = SPEC_HASH_MAPPER.convertValue(item, new TypeReference<LinkedHashMap<String, Object>>() {});
+        normalized.remove("status");
+        Object meta = normalized.get("metadata");
+        if (meta instanceof Map) {
+            Map<?, ?> metaMap = (Map<?, ?>) meta;
+            for (String field : RUNTIME_METADATA_FIELDS) {
+                metaMap.remove(field);
+            }
+            Object annotations = metaMap.get("annotations");
+            if (annotations instanceof Map) {
+                Map<?, ?> annotationMap = (Map<?, ?>) annotations;
+                annotationMap.remove(RESOURCE_SPEC_HASH_ANNOTATION);
+                if (annotationMap.isEmpty()) {
+                    metaMap.remove("annotations");
+                }
+            }
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(SPEC_HASH_MAPPER.writeValueAsBytes(normalized));
+            return String.format("%064x", new BigInteger(1, hash));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Cannot calculate hash for " + item.getKind() + " " + getName(item) + ": " + e, e);
+        }
+    }
+
+    /**
+     * Store the hash as calculated by {@link #computeSpecHash(HasMetadata)} as annotation
+     *
+     * @param item resource to annotate
+     */
+    public static void addSpecHashAnnotation(HasMetadata item) {
+        String hash = computeSpecHash(item);
+        Map<String, String> annotations = KubernetesHelper.getOrCreateAnnotations(item);
+        annotations.put(RESOURCE_SPEC_HASH_ANNOTATION, hash);
+        item.getMetadata().setAnnotations(annotations);
+    }
+
+    public static String getSpecHashAnnotation(HasMetadata item) {
+        ObjectMeta metadata = item.getMetadata();
+        if (metadata == null || metadata.getAnnotations() == null) {
+            return null;
+        }
+        return metadata.getAnnotations().get(RESOURCE_SPEC_HASH_ANNOTATION);
+    }
+
     public static Set<HasMetadata> loadResources(File manifest) throws IOException {
-        Object dto = KubernetesHelper.loadYaml(manifest, KubernetesResource.class);
-        if (dto == null) {
+        final Set<HasMetadata> entities = new TreeSet<>(new HasMetadataComparator());
+        int documents = streamResources(manifest, new ResourceConsumer() {
+            @Override
+            public void consume(HasMetadata resource) {
+                entities.add(resource);
+            }
+        });
+        if (documents == 0) {
             throw new IllegalStateException("Cannot load kubernetes YAML: " + manifest);
         }
+        return entities;
+    }
 
-        if (dto instanceof Template) {
-            Template template = (Template) dto;
-            boolean failOnMissingParameterValue = false;
-            dto = Templates.processTemplatesLocally(template, failOnMissingParameterValue);
+    /**
+     * Load the resources of a manifest in a background thread, so that the caller can do other work
+     * (like connecting to the cluster) in the meantime.
+     *
+     * @param manifest manifest to load
+     * @return future for the resources as returned by {@link #loadResources(File)}
+     */
+    public static Future<Set<HasMetadata>> loadResourcesInBackground(final File manifest) {
+        FutureTask<Set<HasMetadata>> task = new FutureTask<>(new Callable<Set<HasMetadata>>() {
+            @Override
+            public Set<HasMetadata> call() throws IOException {
+                return loadResources(manifest);
+            }
+        });
+        Thread thread = new Thread(task, "fabric8-manifest-loader");
+        thread.setDaemon(true);
+        thread.start();
+        return task;
+    }
+
+    /**
+     * Wait for resources loaded with {@link #loadResourcesInBackground(File)}
+     *
+     * @param resources future as returned by {@link #loadResourcesInBackground(File)}
+     * @return the loaded resources
+     * @throws IOException if the manifest could not be read or if interrupted
+     */
+    public static Set<HasMetadata> getLoadedResources(Future<Set<HasMetadata>> resources) throws IOException {
+        try {
+            return resources.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading resources", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
         }
+    }
 
-        Set<KubernetesResource<?>> resources = new LinkedHashSet<>();
+    /**
+     * Read the resources of a manifest one by one and hand them over to a consumer as soon as they
+     * have been parsed. A manifest can consist of multiple YAML documents, each holding either a single
+     * resource, a list or a template. The items of lists are parsed one at a time. Templates are
+     * processed locally, which requires them to be read as a whole.
+     *
+     * @param manifest manifest in YAML or JSON format
+     * @param consumer consumer for the resources
+     * @return the number of documents read
+     * @throws IOException if the manifest can't be read or the consumer throws an exception
+     */
+    public static int streamResources(File manifest, ResourceConsumer consumer) throws IOException {
+        int documents = 0;
+        // The YAML parser reports the end of each document as null token and closes itself at the end
+        // of the stream. (A MappingIterator can't be used as it stops after the first document)
+        try (JsonParser parser = MANIFEST_MAPPER.getFactory().createParser(manifest)) {
+            while (!parser.isClosed()) {
+                JsonToken token = parser.nextToken();
+                if (token == null) {
+                    continue;
+                }
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                streamDocument(parser, consumer);
+                documents++;
+            }
+        }
+        return documents;
+    }
 
-        Set<HasMetadata> entities = new TreeSet<>(new HasMetadataComparator());
-        for (KubernetesResource<?> resource : resources) {
-            entities.addAll(KubernetesHelper.toItemList(resource));
+    /**
+     * Consumer for resources read by {@link #streamResources(File, ResourceConsumer)}
+     */
+    public interface ResourceConsumer {
+        void consume(HasMetadata resource) throws IOException;
+    }
+
+    // Parser is positioned at the start of a document's root object
+    private static void streamDocument(JsonParser parser, ResourceConsumer consumer) throws IOException {
+        ObjectNode document = MANIFEST_MAPPER.createObjectNode();
+        boolean itemsStreamed = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("items".equals(field) && value == JsonToken.START_ARRAY) {
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                    if (token == JsonToken.START_OBJECT) {
+                        consumeResource(MANIFEST_MAPPER.<JsonNode>readTree(parser), false, consumer);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                itemsStreamed = true;
+            } else {
+                document.set(field, MANIFEST_MAPPER.<JsonNode>readTree(parser));
+            }
+        }
+        if (!itemsStreamed) {
+            consumeResource(document, true, consumer);
         }
+    }
 
-        entities.addAll(KubernetesHelper.toItemList(dto));
-        return entities;
+    private static void consumeResource(JsonNode node, boolean processTemplate, ResourceConsumer consumer) throws IOException {
+        Object dto = MANIFEST_MAPPER.treeToValue(node, KubernetesResource.class);
+        if (dto == null) {
+            return;
+        }
+        if (processTemplate && dto instanceof Template) {
+            boolean failOnMissingParameterValue = false;
+            dto = Templates.processTemplatesLocally((Template) dto, failOnMissingParameterValue);
+        }
+        for (HasMetadata item : KubernetesHelper.toItemList(dto)) {
+            consumer.consume(item);
+        }
     }
 
     public static LabelSelector getPodLabelSelector(Set<HasMetadata> entities) {
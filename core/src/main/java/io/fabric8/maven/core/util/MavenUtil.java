@@ -80,7 +80,15 @@ public class MavenUtil {
         return null;
     }
 
+    /**
+     * Get the class loader over the compile class path of a project. The class loader is shared
+     * until it is released with {@link ProjectClassLoaders#release(MavenProject)}.
+     */
     public static URLClassLoader getCompileClassLoader(MavenProject project) {
+        return ProjectClassLoaders.forProject(project).getCompileClassLoader();
+    }
+
+    static IndexedURLClassLoader createCompileClassLoader(MavenProject project) {
         try {
             List<String> classpathElements = project.getCompileClasspathElements();
             return createClassLoader(classpathElements, project.getBuild().getOutputDirectory());
@@ -109,7 +117,7 @@ public class MavenUtil {
 
     // ====================================================
 
-    private static URLClassLoader createClassLoader(List<String> classpathElements, String... paths) {
+    private static IndexedURLClassLoader createClassLoader(List<String> classpathElements, String... paths) {
         List<URL> urls = new ArrayList<>();
         for (String path : paths) {
             URL url = pathToUrl(path);
@@ -125,8 +133,8 @@ public class MavenUtil {
         return createURLClassLoader(urls);
     }
 
-    private static URLClassLoader createURLClassLoader(Collection<URL> jars) {
-        return new URLClassLoader(jars.toArray(new URL[jars.size()]));
+    private static IndexedURLClassLoader createURLClassLoader(Collection<URL> jars) {
+        return new IndexedURLClassLoader(jars.toArray(new URL[jars.size()]));
     }
 
     private static URL pathToUrl(String path) {
@@ -180,31 +188,27 @@ public class MavenUtil {
     }
 
     /**
-     * Returns true if any of the given class names could be found on the given class loader
+     * Returns true if any of the given class names could be found on the compile class path. The
+     * classes are looked up in the index of the class path and are not loaded.
      */
     public static boolean hasClass(MavenProject project, String ... classNames) {
-        URLClassLoader compileClassLoader = getCompileClassLoader(project);
+        ProjectClassLoaders classLoaders = ProjectClassLoaders.forProject(project);
         for (String className : classNames) {
-            try {
-                compileClassLoader.loadClass(className);
+            if (classLoaders.hasClass(className)) {
                 return true;
-            } catch (Throwable e) {
-                // ignore
             }
         }
         return false;
     }
 
     /**
-     * Returns true if all the given class names could be found on the given class loader
+     * Returns true if all the given class names could be found on the compile class path. The
+     * classes are looked up in the index of the class path and are not loaded.
      */
     public static boolean hasAllClasses(MavenProject project, String ... classNames) {
-        URLClassLoader compileClassLoader = getCompileClassLoader(project);
+        ProjectClassLoaders classLoaders = ProjectClassLoaders.forProject(project);
         for (String className : classNames) {
-            try {
-                compileClassLoader.loadClass(className);
-            } catch (Throwable e) {
-                // ignore message
+            if (!classLoaders.hasClass(className)) {
                 return false;
             }
         }
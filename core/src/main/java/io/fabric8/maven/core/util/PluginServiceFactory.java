@@ -43,6 +43,17 @@ import java.util.regex.Pattern;
  */
 public final class PluginServiceFactory<C> {
 
+    // Resolved service constructors, shared between all factories of a build. Only definitions
+    // from the plugin's own class loaders are cached, the cache is bounded nevertheless.
+    private static final int MAX_CACHED_DEFINITIONS = 64;
+    private static final Map<List<Object>, List<Constructor<?>>> SERVICE_DEFINITION_CACHE =
+        new LinkedHashMap<List<Object>, List<Constructor<?>>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, List<Constructor<?>>> eldest) {
+                return size() > MAX_CACHED_DEFINITIONS;
+            }
+        };
+
     private List<ClassLoader> additionalClassLoaders = new ArrayList<>();
 
     // Parameters for service constructors
@@ -68,24 +79,58 @@ public final class PluginServiceFactory<C> {
      * @param <T> type of the service objects to create
      * @return a ordered list of created services or an empty list.
      */
+    @SuppressWarnings("unchecked")
     public <T> List<T> createServiceObjects(String... descriptorPaths) {
+        ArrayList<T> ret = new ArrayList<T>();
+        for (Constructor<?> constructor : getServiceConstructors(descriptorPaths)) {
+            try {
+                ret.add((T) constructor.newInstance(context));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create service " + constructor.getDeclaringClass().getName() +
+                                                " : " + e + ". Aborting", e);
+            }
+        }
+        return ret;
+    }
+
+    // Lookup the constructors of all services. The descriptors are only read once for the
+    // same context class loader, descriptors and context type. Additional class loaders are
+    // usually project class loaders which are closed after a build, so their services are
+    // never cached to not keep these loaders (and their classes) alive.
+    private List<Constructor<?>> getServiceConstructors(String... descriptorPaths) {
+        if (!additionalClassLoaders.isEmpty()) {
+            return readServiceConstructors(descriptorPaths);
+        }
+        List<Object> key = Arrays.<Object>asList(context.getClass(),
+                                                 Arrays.asList(descriptorPaths),
+                                                 Thread.currentThread().getContextClassLoader());
+        synchronized (SERVICE_DEFINITION_CACHE) {
+            List<Constructor<?>> constructors = SERVICE_DEFINITION_CACHE.get(key);
+            if (constructors != null) {
+                return constructors;
+            }
+        }
+        List<Constructor<?>> constructors = readServiceConstructors(descriptorPaths);
+        synchronized (SERVICE_DEFINITION_CACHE) {
+            SERVICE_DEFINITION_CACHE.put(key, constructors);
+        }
+        return constructors;
+    }
+
+    private List<Constructor<?>> readServiceConstructors(String... descriptorPaths) {
         try {
             ServiceEntry.initDefaultOrder();
-            TreeMap<ServiceEntry,T> serviceMap = new TreeMap<ServiceEntry,T>();
+            TreeMap<ServiceEntry, Constructor<?>> serviceMap = new TreeMap<>();
             for (String descriptor : descriptorPaths) {
                 readServiceDefinitions(serviceMap, descriptor);
             }
-            ArrayList<T> ret = new ArrayList<T>();
-            for (T service : serviceMap.values()) {
-                ret.add(service);
-            }
-            return ret;
+            return Collections.unmodifiableList(new ArrayList<>(serviceMap.values()));
         } finally {
             ServiceEntry.removeDefaultOrder();
         }
     }
 
-    private <T> void readServiceDefinitions(Map<ServiceEntry, T> extractorMap, String defPath) {
+    private void readServiceDefinitions(Map<ServiceEntry, Constructor<?>> extractorMap, String defPath) {
         try {
             for (String url : ClassUtil.getResources(defPath, additionalClassLoaders)) {
                 readServiceDefinitionFromUrl(extractorMap, url);
@@ -95,7 +140,7 @@ public final class PluginServiceFactory<C> {
         }
     }
 
-    private <T> void readServiceDefinitionFromUrl(Map<ServiceEntry, T> extractorMap, String url) {
+    private void readServiceDefinitionFromUrl(Map<ServiceEntry, Constructor<?>> extractorMap, String url) {
         String line = null;
         try (LineNumberReader reader = new LineNumberReader(new InputStreamReader(new URL(url).openStream(), "UTF8"))) {
             line = reader.readLine();
@@ -112,7 +157,7 @@ public final class PluginServiceFactory<C> {
     // Matches comment lines and empty lines. these are skipped
     private static Pattern COMMENT_LINE_PATTERN = Pattern.compile("^(\\s*#.*|\\s*)$");
 
-    private synchronized  <T> void createOrRemoveService(Map<ServiceEntry, T> serviceMap, String line)
+    private void createOrRemoveService(Map<ServiceEntry, Constructor<?>> serviceMap, String line)
         throws ReflectiveOperationException {
         if (line.length() > 0 && !COMMENT_LINE_PATTERN.matcher(line).matches()) {
             ServiceEntry entry = new ServiceEntry(line);
@@ -130,17 +175,16 @@ public final class PluginServiceFactory<C> {
                     serviceMap.remove(key);
                 }
             } else {
-                Class<T> clazz = ClassUtil.classForName(entry.getClassName(), additionalClassLoaders);
+                Class<?> clazz = ClassUtil.classForName(entry.getClassName(), additionalClassLoaders);
                 if (clazz == null) {
                     throw new ClassNotFoundException("Class " + entry.getClassName() + " could not be found");
                 }
-                Constructor<T> constructor = clazz.getConstructor(context.getClass());
+                Constructor<?> constructor = clazz.getConstructor(context.getClass());
                 if (constructor == null) {
                     throw new IllegalArgumentException(
                         "Internal Error: " + clazz + " does not have constructor (" + context.getClass() + ")");
                 }
-                T service = constructor.newInstance(context);
-                serviceMap.put(entry, service);
+                serviceMap.put(entry, constructor);
             }
         }
     }
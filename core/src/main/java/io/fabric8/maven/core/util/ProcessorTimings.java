@@ -0,0 +1,249 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.core.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.fabric8.maven.docker.util.Logger;
+import org.apache.maven.project.MavenProject;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Records wall time, CPU time and allocated bytes of the current thread for each
+ * processor (enricher, generator, watcher) invocation. Measurements are taken from the
+ * {@link ThreadMXBean} only when enabled so that a disabled instance only costs a call
+ * to {@link System#nanoTime()}. The recorded values can be written as a JSON report, together
+ * with the hit and miss counts of the {@link ProfileUtil} profile cache.
+ */
+public class ProcessorTimings {
+
+    /**
+     * Instance which only measures wall time without recording anything
+     */
+    public static final ProcessorTimings DISABLED = new ProcessorTimings(null);
+
+    private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_SUPPORTED = THREAD_BEAN.isCurrentThreadCpuTimeSupported();
+    private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = getAllocationBean(THREAD_BEAN);
+
+    private static final ObjectMapper REPORT_MAPPER =
+        new ObjectMapper().configure(SerializationFeature.INDENT_OUTPUT, true);
+
+    private final File reportFile;
+    private final boolean enabled;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * @param reportFile file to write the report to or null for a disabled instance
+     */
+    public ProcessorTimings(File reportFile) {
+        this.reportFile = reportFile;
+        this.enabled = reportFile != null;
+    }
+
+    /**
+     * Get the timings shared by all goals running on the given project within the
+     * current Maven session, so that the report <code>target/fabric8/timings.json</code>
+     * covers all of them.
+     *
+     * @param project project for which to lookup the timings
+     * @param enabled whether timings should be recorded at all
+     * @return timings, created on first access, or {@link #DISABLED}
+     */
+    public static synchronized ProcessorTimings forProject(MavenProject project, boolean enabled) {
+        if (!enabled) {
+            return DISABLED;
+        }
+        String key = ProcessorTimings.class.getName();
+        ProcessorTimings timings = (ProcessorTimings) project.getContextValue(key);
+        if (timings == null) {
+            timings = new ProcessorTimings(new File(project.getBuild().getDirectory(), "fabric8/timings.json"));
+            project.setContextValue(key, timings);
+        }
+        return timings;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start a measurement on the current thread
+     *
+     * @return sample to be given to {@link #stop(String, String, String, Sample)}
+     */
+    public Sample start() {
+        return enabled ?
+            new Sample(System.nanoTime(), currentCpuTime(), currentAllocatedBytes()) :
+            new Sample(System.nanoTime(), -1, -1);
+    }
+
+    /**
+     * Stop a measurement started on the current thread and record it when enabled
+     *
+     * @param type type of the processor like "enricher" or "generator"
+     * @param name name of the processor
+     * @param phase the step performed by the processor
+     * @param start sample as returned by {@link #start()}
+     * @return elapsed wall time in nanoseconds
+     */
+    public long stop(String type, String name, String phase, Sample start) {
+        long wallNanos = System.nanoTime() - start.wallNanos;
+        if (enabled) {
+            long cpuNanos = start.cpuNanos >= 0 ? currentCpuTime() - start.cpuNanos : -1;
+            long allocatedBytes = start.allocatedBytes >= 0 ? currentAllocatedBytes() - start.allocatedBytes : -1;
+            record(type, name, phase, wallNanos, cpuNanos, allocatedBytes);
+        }
+        return wallNanos;
+    }
+
+    /**
+     * Record a measurement which has been taken externally, e.g. when the time is accumulated
+     * over many small calls where sampling the thread's CPU time would be too expensive.
+     * CPU time and allocated bytes are unknown for such an entry.
+     */
+    public void record(String type, String name, String phase, long wallNanos) {
+        if (enabled) {
+            record(type, name, phase, wallNanos, -1, -1);
+        }
+    }
+
+    /**
+     * Write all recorded measurements as JSON report. Does nothing if disabled.
+     *
+     * @param log logger for reporting a failure, which doesn't stop the build
+     */
+    public void writeReport(Logger log) {
+        if (!enabled) {
+            return;
+        }
+        List<Map<String, Object>> processors = new ArrayList<>();
+        synchronized (entries) {
+            for (Entry entry : entries.values()) {
+                processors.add(entry.toMap());
+            }
+        }
+        Map<String, Object> profileCache = new LinkedHashMap<>();
+        profileCache.put("hits", ProfileUtil.getCacheHits());
+        profileCache.put("misses", ProfileUtil.getCacheMisses());
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("processors", processors);
+        report.put("profileCache", profileCache);
+        try {
+            File dir = reportFile.getParentFile();
+            if (dir != null && !dir.exists() && !dir.mkdirs()) {
+                throw new IOException("Cannot create directory " + dir);
+            }
+            REPORT_MAPPER.writeValue(reportFile, report);
+            log.verbose("Processor timings written to %s", reportFile);
+        } catch (IOException exp) {
+            log.warn("Cannot write processor timings to %s: %s", reportFile, exp.getMessage());
+        }
+    }
+
+    private void record(String type, String name, String phase, long wallNanos, long cpuNanos, long allocatedBytes) {
+        String key = type + "/" + name + "/" + phase;
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(type, name, phase);
+                entries.put(key, entry);
+            }
+            entry.add(wallNanos, cpuNanos, allocatedBytes);
+        }
+    }
+
+    private static long currentCpuTime() {
+        return CPU_TIME_SUPPORTED ? THREAD_BEAN.getCurrentThreadCpuTime() : -1;
+    }
+
+    private static long currentAllocatedBytes() {
+        return ALLOCATION_BEAN != null ? ALLOCATION_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean getAllocationBean(ThreadMXBean threadBean) {
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadBean;
+            if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                return bean;
+            }
+        }
+        return null;
+    }
+
+    // ===========================================================================================
+
+    /**
+     * Values at the start of a measurement
+     */
+    public static class Sample {
+        private final long wallNanos;
+        private final long cpuNanos;
+        private final long allocatedBytes;
+
+        private Sample(long wallNanos, long cpuNanos, long allocatedBytes) {
+            this.wallNanos = wallNanos;
+            this.cpuNanos = cpuNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+    }
+
+    private static class Entry {
+        private final String type;
+        private final String name;
+        private final String phase;
+
+        private int calls;
+        private long wallNanos;
+        // -1 if unknown for any of the calls
+        private long cpuNanos;
+        private long allocatedBytes;
+
+        private Entry(String type, String name, String phase) {
+            this.type = type;
+            this.name = name;
+            this.phase = phase;
+        }
+
+        private void add(long wall, long cpu, long allocated) {
+            cpuNanos = cpuNanos >= 0 && cpu >= 0 ? cpuNanos + cpu : -1;
+            allocatedBytes = allocatedBytes >= 0 && allocated >= 0 ? allocatedBytes + allocated : -1;
+            wallNanos += wall;
+            calls++;
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> ret = new LinkedHashMap<>();
+            ret.put("type", type);
+            ret.put("name", name);
+            ret.put("phase", phase);
+            ret.put("calls", calls);
+            ret.put("wallMicros", wallNanos / 1000);
+            ret.put("cpuMicros", cpuNanos >= 0 ? cpuNanos / 1000 : null);
+            ret.put("allocatedBytes", allocatedBytes >= 0 ? allocatedBytes : null);
+            return ret;
+        }
+    }
+}
@@ -17,8 +17,10 @@
 package io.fabric8.maven.core.util;
 
 import java.io.*;
+import java.net.URI;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -46,6 +48,21 @@ public class ProfileUtil {
     // Default profile which will be always there
     public static final String DEFAULT_PROFILE = "default";
 
+    // Merged profiles, shared by all goals and modules of a build. A key consists of the profile name and
+    // the locations of all profile files contributing to it, including the modification time for files
+    // on the file system. The cache is bounded since locations can come from project specific class loaders.
+    private static final int MAX_CACHED_PROFILES = 64;
+    private static final Map<String, Profile> PROFILE_CACHE =
+        new LinkedHashMap<String, Profile>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Profile> eldest) {
+                return size() > MAX_CACHED_PROFILES;
+            }
+        };
+
+    private static final AtomicLong cacheHits = new AtomicLong();
+    private static final AtomicLong cacheMisses = new AtomicLong();
+
     /**
      * Find a profile. Profiles are looked up at various locations:
      *
@@ -94,7 +111,8 @@ public class ProfileUtil {
 
     /**
      * Lookup profiles from a given directory and merge it with a profile of the
-     * same name found in the classpath
+     * same name found in the classpath. The merged profile is cached as long as none
+     * of the profile files changes, so the returned profile must not be modified.
      *
      * @param name name of the profile to lookup
      * @param directory directory to lookup
@@ -102,12 +120,24 @@ public class ProfileUtil {
      * @throws IOException if somethings fails during lookup
      */
     public static Profile lookup(String name, File directory) throws IOException {
+        File profileFile = findProfileYaml(directory);
+        String cacheKey = getCacheKey(name, profileFile);
+        synchronized (PROFILE_CACHE) {
+            if (PROFILE_CACHE.containsKey(cacheKey)) {
+                cacheHits.incrementAndGet();
+                return PROFILE_CACHE.get(cacheKey);
+            }
+        }
+        cacheMisses.incrementAndGet();
+
         // First check from the classpath, these profiles are used as a basis
         List<Profile> profiles = readProfileFromClasspath(name);
 
-        File profileFile = findProfileYaml(directory);
         if (profileFile != null) {
-            List<Profile> fileProfiles = fromYaml(new FileInputStream(profileFile));
+            List<Profile> fileProfiles;
+            try (InputStream is = new FileInputStream(profileFile)) {
+                fileProfiles = fromYaml(is);
+            }
             for (Profile profile : fileProfiles) {
                 if (profile.getName().equals(name)) {
                     profiles.add(profile);
@@ -117,7 +147,25 @@ public class ProfileUtil {
         }
         // "larger" orders are "earlier" in the list
         Collections.sort(profiles, Collections.<Profile>reverseOrder());
-        return mergeProfiles(profiles);
+        Profile ret = mergeProfiles(profiles);
+        synchronized (PROFILE_CACHE) {
+            PROFILE_CACHE.put(cacheKey, ret);
+        }
+        return ret;
+    }
+
+    /**
+     * @return number of profile lookups answered from the cache since the start of the JVM
+     */
+    public static long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    /**
+     * @return number of profile lookups which had to read the profile files since the start of the JVM
+     */
+    public static long getCacheMisses() {
+        return cacheMisses.get();
     }
 
     private static ProcessorConfig extractProcesssorConfiguration(ProcessorConfigurationExtractor extractor,
@@ -186,6 +234,36 @@ public class ProfileUtil {
         return null;
     }
 
+    // Profile name and all profile files which are considered for this profile
+    private static String getCacheKey(String name, File profileFile) throws IOException {
+        StringBuilder key = new StringBuilder(name);
+        for (String ext : new String[] { "default", "" }) {
+            for (String location : getMetaInfProfilePaths(ext)) {
+                List<String> urls = new ArrayList<>(ClassUtil.getResources(location));
+                Collections.sort(urls);
+                for (String url : urls) {
+                    key.append('|').append(url);
+                    if (url.startsWith("file:")) {
+                        try {
+                            appendFileState(key, new File(URI.create(url)));
+                        } catch (IllegalArgumentException exp) {
+                            // Not a plain file URL, so the URL alone is used
+                        }
+                    }
+                }
+            }
+        }
+        if (profileFile != null) {
+            key.append('|').append(profileFile.getAbsolutePath());
+            appendFileState(key, profileFile);
+        }
+        return key.toString();
+    }
+
+    private static void appendFileState(StringBuilder key, File file) {
+        key.append(':').append(file.lastModified()).append(':').append(file.length());
+    }
+
     // prepend meta-inf location
     private static List<String> getMetaInfProfilePaths(String ext) {
         List<String> ret = new ArrayList<>(PROFILE_FILENAMES.length);
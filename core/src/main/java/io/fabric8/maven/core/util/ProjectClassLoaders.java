@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.core.util;
+
+import java.io.IOException;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.fabric8.maven.docker.util.Logger;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Class loaders over the compile class path of a project. The class loaders are created once per project
+ * and shared by everyone who needs to look into the project's classes during a goal execution. They are
+ * recreated when the compile class path changes and must be released with {@link #release(MavenProject)}
+ * when the goal is done, which closes all opened jars.
+ */
+public class ProjectClassLoaders {
+
+    private final MavenProject project;
+
+    private List<String> classpath;
+    private IndexedURLClassLoader compileClassLoader;
+    private URLClassLoader pluginClassLoader;
+
+    private ProjectClassLoaders(MavenProject project) {
+        this.project = project;
+    }
+
+    /**
+     * Get the class loaders for a project
+     *
+     * @param project project to get the class loaders for
+     * @return class loaders which are shared until {@link #release(MavenProject)} is called
+     */
+    public static synchronized ProjectClassLoaders forProject(MavenProject project) {
+        String key = ProjectClassLoaders.class.getName();
+        ProjectClassLoaders loaders = (ProjectClassLoaders) project.getContextValue(key);
+        if (loaders == null) {
+            loaders = new ProjectClassLoaders(project);
+            project.setContextValue(key, loaders);
+        }
+        return loaders;
+    }
+
+    /**
+     * Close all class loaders which has been created for a project
+     *
+     * @param project project whose class loaders should be closed
+     */
+    public static synchronized void release(MavenProject project) {
+        String key = ProjectClassLoaders.class.getName();
+        ProjectClassLoaders loaders = (ProjectClassLoaders) project.getContextValue(key);
+        if (loaders != null) {
+            project.setContextValue(key, null);
+            loaders.close();
+        }
+    }
+
+    /**
+     * Class loader over the compile class path and the output directory, without a parent
+     * class loader other than the system class loader.
+     */
+    public URLClassLoader getCompileClassLoader() {
+        return getIndexedCompileClassLoader();
+    }
+
+    /**
+     * Check whether a class is on the compile class path without loading it
+     */
+    public boolean hasClass(String className) {
+        return getIndexedCompileClassLoader().hasClass(className);
+    }
+
+    private synchronized IndexedURLClassLoader getIndexedCompileClassLoader() {
+        checkClasspath();
+        if (compileClassLoader == null) {
+            compileClassLoader = MavenUtil.createCompileClassLoader(project);
+        }
+        return compileClassLoader;
+    }
+
+    /**
+     * Class loader over the compile class path which delegates to the plugin's class loader,
+     * so that classes from the project can extend classes of the plugin.
+     */
+    public synchronized URLClassLoader getProjectClassLoader(Logger log) {
+        checkClasspath();
+        if (pluginClassLoader == null) {
+            pluginClassLoader = ClassUtil.createProjectClassLoader(project, log);
+        }
+        return pluginClassLoader;
+    }
+
+    // Drop the class loaders if the class path has changed since they have been created
+    private void checkClasspath() {
+        List<String> current;
+        try {
+            current = new ArrayList<>(project.getCompileClasspathElements());
+        } catch (DependencyResolutionRequiredException e) {
+            current = null;
+        }
+        if (classpath != null && !classpath.equals(current)) {
+            close();
+        }
+        classpath = current;
+    }
+
+    private synchronized void close() {
+        closeQuietly(compileClassLoader);
+        closeQuietly(pluginClassLoader);
+        compileClassLoader = null;
+        pluginClassLoader = null;
+    }
+
+    private void closeQuietly(URLClassLoader classLoader) {
+        if (classLoader != null) {
+            try {
+                classLoader.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.core.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import io.fabric8.maven.docker.util.Logger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Content addressed cache for the resource generation. A key is calculated over all inputs
+ * which influence the generated resources. When the key of a previous run matches and all
+ * of the generated files are still unmodified, the resource generation can be skipped and
+ * the previously generated files are reused.
+ *
+ * The cache state is stored as a properties file in the given cache directory.
+ */
+public class ResourceGenerationCache {
+
+    private static final String CACHE_FILE = "resource-cache.properties";
+    private static final String KEY_PROPERTY = "key";
+    private static final String OUTPUT_PREFIX = "output.";
+
+    private final File cacheFile;
+    private final Logger log;
+
+    public ResourceGenerationCache(File cacheDir, Logger log) {
+        this.cacheFile = new File(cacheDir, CACHE_FILE);
+        this.log = log;
+    }
+
+    /**
+     * Lookup the outputs stored for the given key.
+     *
+     * @param key key as calculated with a {@link KeyBuilder}
+     * @return the outputs of the previous generation or null if the key doesn't match or any
+     *         of the output files has been changed or removed in the meantime.
+     */
+    public List<Output> lookup(String key) {
+        if (key == null || !cacheFile.exists()) {
+            return null;
+        }
+        try {
+            Properties props = new Properties();
+            try (InputStream is = new FileInputStream(cacheFile)) {
+                props.load(is);
+            }
+            if (!key.equals(props.getProperty(KEY_PROPERTY))) {
+                return null;
+            }
+            List<Output> outputs = new ArrayList<>();
+            for (int i = 0; props.containsKey(OUTPUT_PREFIX + i + ".file"); i++) {
+                String prefix = OUTPUT_PREFIX + i + ".";
+                Output output = new Output(props.getProperty(prefix + "type"),
+                                           props.getProperty(prefix + "classifier"),
+                                           new File(props.getProperty(prefix + "file")));
+                if (!output.getFile().isFile() ||
+                    !hashFile(output.getFile()).equals(props.getProperty(prefix + "hash"))) {
+                    log.verbose("Generated resource %s has been modified", output.getFile());
+                    return null;
+                }
+                outputs.add(output);
+            }
+            return outputs;
+        } catch (IOException exp) {
+            log.warn("Cannot read resource cache %s: %s", cacheFile, exp.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Store the outputs of a resource generation. Any previous entry is replaced.
+     *
+     * @param key key as calculated with a {@link KeyBuilder}
+     * @param outputs files generated for this key
+     */
+    public void store(String key, List<Output> outputs) {
+        if (key == null) {
+            return;
+        }
+        try {
+            Properties props = new Properties();
+            props.setProperty(KEY_PROPERTY, key);
+            for (int i = 0; i < outputs.size(); i++) {
+                Output output = outputs.get(i);
+                String prefix = OUTPUT_PREFIX + i + ".";
+                props.setProperty(prefix + "type", output.getType());
+                props.setProperty(prefix + "classifier", output.getClassifier());
+                props.setProperty(prefix + "file", output.getFile().getAbsolutePath());
+                props.setProperty(prefix + "hash", hashFile(output.getFile()));
+            }
+            File dir = cacheFile.getParentFile();
+            if (!dir.exists() && !dir.mkdirs()) {
+                throw new IOException("Cannot create directory " + dir);
+            }
+            try (OutputStream os = new FileOutputStream(cacheFile)) {
+                props.store(os, "fabric8:resource cache");
+            }
+        } catch (IOException exp) {
+            log.warn("Cannot write resource cache %s: %s", cacheFile, exp.getMessage());
+        }
+    }
+
+    /**
+     * Remove any stored entry
+     */
+    public void invalidate() {
+        if (cacheFile.exists() && !cacheFile.delete()) {
+            log.warn("Cannot delete resource cache %s", cacheFile);
+        }
+    }
+
+    private static String hashFile(File file) throws IOException {
+        MessageDigest digest = createDigest();
+        updateDigest(digest, file);
+        return toHex(digest);
+    }
+
+    private static void updateDigest(MessageDigest digest, File file) throws IOException {
+        byte[] buffer = new byte[8192];
+        try (InputStream is = new FileInputStream(file)) {
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No SHA-256 digest available", e);
+        }
+    }
+
+    private static String toHex(MessageDigest digest) {
+        return String.format("%064x", new BigInteger(1, digest.digest()));
+    }
+
+    // ===========================================================================================
+
+    /**
+     * A generated file which has been attached to the project
+     */
+    public static class Output {
+
+        private final String type;
+        private final String classifier;
+        private final File file;
+
+        public Output(String type, String classifier, File file) {
+            this.type = type;
+            this.classifier = classifier;
+            this.file = file;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getClassifier() {
+            return classifier;
+        }
+
+        public File getFile() {
+            return file;
+        }
+    }
+
+    /**
+     * Calculates a cache key from all inputs. Each input is added with a name so that values can't
+     * be confused with each other. The key can't be calculated if any input is not serializable,
+     * in which case {@link #build()} returns null.
+     */
+    public static class KeyBuilder {
+
+        private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+        private final MessageDigest digest = createDigest();
+        private String error;
+
+        /**
+         * Add a value, which is serialized as JSON
+         */
+        public KeyBuilder add(String name, Object value) {
+            if (error != null) {
+                return this;
+            }
+            try {
+                digest.update(name.getBytes(StandardCharsets.UTF_8));
+                digest.update(MAPPER.writeValueAsBytes(value));
+            } catch (IOException | RuntimeException exp) {
+                error = String.format("Cannot serialize %s: %s", name, exp.getMessage());
+            }
+            return this;
+        }
+
+        /**
+         * Add the content of a file or, for a directory, the names and contents of all files within
+         * the directory tree. Missing files are recorded as such.
+         */
+        public KeyBuilder addFile(String name, File file) {
+            if (error != null) {
+                return this;
+            }
+            digest.update(name.getBytes(StandardCharsets.UTF_8));
+            try {
+                addFileRecursively(file, "");
+            } catch (IOException exp) {
+                error = String.format("Cannot read %s: %s", file, exp.getMessage());
+            }
+            return this;
+        }
+
+        /**
+         * Add the names, sizes and modification times of a file or of all files within a directory tree.
+         * This is cheaper than {@link #addFile(String, File)} for directories with many or large files.
+         *
+         * @param name name of this input
+         * @param file file or directory to add
+         * @param excludes files or directories within the tree which are skipped, e.g. generated outputs
+         */
+        public KeyBuilder addFileStamps(String name, File file, File... excludes) {
+            if (error != null) {
+                return this;
+            }
+            digest.update(name.getBytes(StandardCharsets.UTF_8));
+            Set<File> excluded = new HashSet<>();
+            for (File exclude : excludes) {
+                excluded.add(exclude.getAbsoluteFile());
+            }
+            addFileStampsRecursively(file, "", excluded);
+            return this;
+        }
+
+        /**
+         * @return the key or null if any of the inputs could not be added
+         */
+        public String build() {
+            return error == null ? toHex(digest) : null;
+        }
+
+        /**
+         * @return description why no key could be calculated or null if there was no error
+         */
+        public String getError() {
+            return error;
+        }
+
+        private void addFileRecursively(File file, String path) throws IOException {
+            if (file == null || !file.exists()) {
+                digest.update((path + ":missing").getBytes(StandardCharsets.UTF_8));
+            } else if (file.isDirectory()) {
+                File[] children = file.listFiles();
+                List<File> sorted = children != null ? new ArrayList<>(Arrays.asList(children)) : new ArrayList<File>();
+                Collections.sort(sorted);
+                for (File child : sorted) {
+                    addFileRecursively(child, path + "/" + child.getName());
+                }
+            } else {
+                digest.update((path + ":" + file.length()).getBytes(StandardCharsets.UTF_8));
+                updateDigest(digest, file);
+            }
+        }
+
+        private void addFileStampsRecursively(File file, String path, Set<File> excluded) {
+            if (file != null && excluded.contains(file.getAbsoluteFile())) {
+                return;
+            }
+            if (file == null || !file.exists()) {
+                digest.update((path + ":missing").getBytes(StandardCharsets.UTF_8));
+            } else if (file.isDirectory()) {
+                File[] children = file.listFiles();
+                List<File> sorted = children != null ? new ArrayList<>(Arrays.asList(children)) : new ArrayList<File>();
+                Collections.sort(sorted);
+                for (File child : sorted) {
+                    addFileStampsRecursively(child, path + "/" + child.getName(), excluded);
+                }
+            } else {
+                digest.update((path + ":" + file.length() + ":" + file.lastModified()).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+}
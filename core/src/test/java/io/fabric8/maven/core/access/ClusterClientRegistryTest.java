@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.core.access;
+
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ClusterClientRegistryTest {
+
+    private ClusterClientRegistry registry = new ClusterClientRegistry();
+
+    @After
+    public void close() {
+        registry.close();
+    }
+
+    @Test
+    public void sharedClients() {
+        KubernetesMockServer mockServer = new KubernetesMockServer(false);
+        Config config = mockServer.createClient().getConfiguration();
+
+        KubernetesClient client = registry.getKubernetesClient(config);
+        assertSame(client, registry.getKubernetesClient(new ConfigBuilder(config).build()));
+        assertNotSame(client, registry.getKubernetesClient(new ConfigBuilder(config).withNamespace("other").build()));
+        assertNotSame(client, registry.getKubernetesClient(new ConfigBuilder(config).withOauthToken("token").build()));
+        assertSame(registry.getOpenShiftClient(config), registry.getOpenShiftClient(config));
+        assertTrue(registry.getOpenShiftClient(config).getOpenshiftUrl().toString().startsWith(config.getMasterUrl()));
+    }
+
+    @Test
+    public void cachedOpenShiftDetection() {
+        Config config = new ConfigBuilder().withMasterUrl("https://localhost:8443/").withNamespace("test").build();
+        assertNull(registry.getOpenShift(config));
+        registry.setOpenShift(config, true);
+        assertEquals(Boolean.TRUE, registry.getOpenShift(new ConfigBuilder(config).build()));
+        assertNull(registry.getOpenShift(new ConfigBuilder(config).withNamespace("other").build()));
+    }
+}
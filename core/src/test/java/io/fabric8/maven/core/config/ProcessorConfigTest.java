@@ -82,6 +82,35 @@ public class ProcessorConfigTest {
         assertNull(pConfig.getConfig("k1", "i2"));
     }
 
+    @Test
+    public void use() {
+        ProcessorConfig pConfig = new ProcessorConfig(Arrays.asList("i1", "e1", "i1"), excludes, null);
+
+        assertTrue(pConfig.use("i1"));
+        assertFalse(pConfig.use("e1"));
+        assertFalse(pConfig.use("n1"));
+    }
+
+    @Test
+    public void configMap() {
+        TreeMap values = new TreeMap();
+        values.put("b", "2");
+        values.put("a", "1");
+        values.put("c", 3);
+        ProcessorConfig pConfig = new ProcessorConfig(null, null, Collections.singletonMap("k1", values));
+
+        Map<String, String> configMap = pConfig.getConfigMap("k1");
+        assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<>(configMap.keySet()));
+        assertEquals("3", pConfig.getConfig("k1", "c"));
+        assertTrue(pConfig.getConfigMap("k2").isEmpty());
+        try {
+            configMap.put("d", "4");
+            fail();
+        } catch (UnsupportedOperationException exp) {
+            // expected
+        }
+    }
+
     @Test
     public void order() {
         List<TestNamed> data = Arrays.asList(
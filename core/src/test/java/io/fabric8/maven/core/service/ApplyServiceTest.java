@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.core.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+import io.fabric8.kubernetes.api.Controller;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.NamespaceBuilder;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.api.model.ServiceListBuilder;
+import io.fabric8.kubernetes.api.model.extensions.Deployment;
+import io.fabric8.kubernetes.api.model.extensions.DeploymentBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.maven.core.util.KubernetesResourceUtil;
+import io.fabric8.maven.core.util.WebServerEventCollector;
+import io.fabric8.maven.docker.util.Logger;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+@RunWith(JMockit.class)
+public class ApplyServiceTest {
+
+    @Mocked
+    private Logger log;
+
+    @Test
+    public void groupIntoTiers() {
+        Deployment deployment = new DeploymentBuilder().withNewMetadata().withName("app").endMetadata().build();
+        Service service = createService("app");
+        ConfigMap configMap = createConfigMap("app-config");
+        Namespace namespace = new NamespaceBuilder().withNewMetadata().withName("test").endMetadata().build();
+
+        List<List<HasMetadata>> tiers =
+            ApplyService.groupIntoTiers(Arrays.<HasMetadata>asList(deployment, service, configMap, namespace));
+
+        assertEquals(4, tiers.size());
+        assertSame(namespace, tiers.get(0).get(0));
+        assertSame(configMap, tiers.get(1).get(0));
+        assertSame(service, tiers.get(2).get(0));
+        assertSame(deployment, tiers.get(3).get(0));
+    }
+
+    @Test
+    public void groupIntoTiersSkipsEmptyTiers() {
+        List<List<HasMetadata>> tiers =
+            ApplyService.groupIntoTiers(Arrays.<HasMetadata>asList(createService("s1"), createService("s2")));
+        assertEquals(1, tiers.size());
+        assertEquals(2, tiers.get(0).size());
+    }
+
+    @Test
+    public void applyConcurrently() throws Exception {
+        KubernetesMockServer mockServer = new KubernetesMockServer(false);
+        WebServerEventCollector<KubernetesMockServer> collector = new WebServerEventCollector<>(mockServer);
+        mockServer.expect().post().withPath("/api/v1/namespaces/test/configmaps")
+                  .andReply(collector.record("configmap-created").andReturn(201, createConfigMap("app-config"))).always();
+        mockServer.expect().post().withPath("/api/v1/namespaces/test/services")
+                  .andReply(collector.record("service-created").andReturn(201, createService("s1"))).always();
+
+        Controller controller = new Controller(mockServer.createClient());
+        controller.setNamespace("test");
+        controller.setThrowExceptionOnError(true);
+
+        ApplyService service = new ApplyService(controller, log, 4);
+        List<ApplyService.ApplyResult> results =
+            service.apply(Arrays.<HasMetadata>asList(createService("s1"), createService("s2"), createConfigMap("app-config")), "test.yml");
+
+        assertEquals(3, results.size());
+        assertEquals("ConfigMap", results.get(0).getKind());
+        assertEquals("Service", results.get(1).getKind());
+        assertEquals("Service", results.get(2).getKind());
+        collector.assertEventsRecordedInOrder("configmap-created", "service-created");
+    }
+
+    @Test(expected = Fabric8ServiceException.class)
+    public void applyFailure() throws Exception {
+        KubernetesMockServer mockServer = new KubernetesMockServer(false);
+
+        Controller controller = new Controller(mockServer.createClient());
+        controller.setNamespace("test");
+        controller.setThrowExceptionOnError(true);
+
+        // No expectation for creating the service, so the mock server answers with 404
+        new ApplyService(controller, log, 2).apply(Arrays.<HasMetadata>asList(createService("s1")), "test.yml");
+    }
+
+    @Test
+    public void skipUnchanged() throws Exception {
+        Service unchanged = createService("s1");
+        KubernetesResourceUtil.addSpecHashAnnotation(unchanged);
+        Service live = new ServiceBuilder(unchanged).editMetadata().withResourceVersion("12").endMetadata().build();
+
+        KubernetesMockServer mockServer = new KubernetesMockServer(false);
+        mockServer.expect().get().withPath("/api/v1/namespaces/test/services")
+                  .andReturn(200, new ServiceListBuilder().withItems(live).build()).once();
+        mockServer.expect().post().withPath("/api/v1/namespaces/test/services")
+                  .andReturn(201, createService("s2")).once();
+
+        KubernetesClient client = mockServer.createClient();
+        Controller controller = new Controller(client);
+        controller.setNamespace("test");
+        controller.setThrowExceptionOnError(true);
+
+        ApplyService service = new ApplyService(controller, log, 1);
+        service.enableSkipUnchanged(client);
+        List<ApplyService.ApplyResult> results =
+            service.apply(Arrays.<HasMetadata>asList(unchanged, createService("s2")), "test.yml");
+
+        assertEquals(2, results.size());
+        assertEquals("s1", results.get(0).getName());
+        assertEquals(ApplyService.ApplyStatus.skipped, results.get(0).getStatus());
+        assertEquals("s2", results.get(1).getName());
+        assertEquals(ApplyService.ApplyStatus.created, results.get(1).getStatus());
+    }
+
+    private Service createService(String name) {
+        return new ServiceBuilder()
+            .withNewMetadata().withName(name).endMetadata()
+            .withNewSpec().addNewPort().withPort(8080).endPort().endSpec()
+            .build();
+    }
+
+    private ConfigMap createConfigMap(String name) {
+        return new ConfigMapBuilder()
+            .withNewMetadata().withName(name).endMetadata()
+            .addToData("key", "value")
+            .build();
+    }
+}
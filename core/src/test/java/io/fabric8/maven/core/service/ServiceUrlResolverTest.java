@@ -0,0 +1,139 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.core.service;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import io.fabric8.kubernetes.api.Annotations;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.api.model.ServiceListBuilder;
+import io.fabric8.kubernetes.api.model.WatchEvent;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.maven.docker.util.Logger;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JMockit.class)
+public class ServiceUrlResolverTest {
+
+    @Mocked
+    private Logger log;
+
+    @Test
+    public void resolveFromSingleList() throws Exception {
+        KubernetesMockServer mockServer = new KubernetesMockServer(false);
+        mockServer.expect().get().withPath("/api/v1/namespaces/test/services")
+                  .andReturn(200, new ServiceListBuilder()
+                      .withItems(createService("s1", true, "http://s1.example.com"),
+                                 createService("s2", false, null),
+                                 createService("other", true, "http://other.example.com"))
+                      .build())
+                  .once();
+
+        ServiceUrlResolver resolver = new ServiceUrlResolver(mockServer.createClient(), log);
+        Map<String, String> urls = resolver.resolveExposeUrls(
+            "test", Arrays.<HasMetadata>asList(createService("s1", true, null), createService("s2", false, null)), 5);
+
+        assertEquals(1, urls.size());
+        assertEquals("http://s1.example.com", urls.get("s1"));
+        // No watch is opened when all exposed services already have their URL
+        assertEquals(1, mockServer.getRequestCount());
+    }
+
+    @Test
+    public void resolveFromWatch() throws Exception {
+        KubernetesMockServer mockServer = new KubernetesMockServer(false);
+        mockServer.expect().get().withPath("/api/v1/namespaces/test/services")
+                  .andReturn(200, new ServiceListBuilder().withItems(createService("s1", true, null))
+                                                          .withNewMetadata().withResourceVersion("1").endMetadata().build())
+                  .always();
+        mockServer.expect().withPath("/api/v1/namespaces/test/services?resourceVersion=1&watch=true")
+                  .andUpgradeToWebSocket().open()
+                  .waitFor(100)
+                  .andEmit(new WatchEvent(withVersion(createService("other", true, "http://other.example.com"), "2"), "MODIFIED"))
+                  .waitFor(100)
+                  .andEmit(new WatchEvent(withVersion(createService("s1", true, "http://s1.example.com"), "3"), "MODIFIED"))
+                  .done().once();
+
+        ServiceUrlResolver resolver = new ServiceUrlResolver(mockServer.createClient(), log);
+        long start = System.currentTimeMillis();
+        Map<String, String> urls = resolver.resolveExposeUrls(
+            "test", Arrays.<HasMetadata>asList(createService("s1", true, null)), 30);
+
+        assertEquals(1, urls.size());
+        assertEquals("http://s1.example.com", urls.get("s1"));
+        // Returns as soon as the URL is published and not only when the wait time is over
+        assertTrue(System.currentTimeMillis() - start < 10000);
+    }
+
+    @Test
+    public void watchTimesOut() throws Exception {
+        KubernetesMockServer mockServer = new KubernetesMockServer(false);
+        mockServer.expect().get().withPath("/api/v1/namespaces/test/services")
+                  .andReturn(200, new ServiceListBuilder().withItems(createService("s1", true, null))
+                                                          .withNewMetadata().withResourceVersion("1").endMetadata().build())
+                  .always();
+        mockServer.expect().withPath("/api/v1/namespaces/test/services?resourceVersion=1&watch=true")
+                  .andUpgradeToWebSocket().open()
+                  .waitFor(100)
+                  .andEmit(new WatchEvent(withVersion(createService("s1", true, null), "2"), "MODIFIED"))
+                  .done().once();
+
+        ServiceUrlResolver resolver = new ServiceUrlResolver(mockServer.createClient(), log);
+        long start = System.currentTimeMillis();
+        Map<String, String> urls = resolver.resolveExposeUrls(
+            "test", Arrays.<HasMetadata>asList(createService("s1", true, null)), 1);
+
+        assertTrue(urls.isEmpty());
+        assertTrue(System.currentTimeMillis() - start >= 1000);
+    }
+
+    @Test
+    public void noServices() throws Exception {
+        KubernetesMockServer mockServer = new KubernetesMockServer(false);
+        ServiceUrlResolver resolver = new ServiceUrlResolver(mockServer.createClient(), log);
+
+        assertTrue(resolver.resolveExposeUrls("test", Arrays.<HasMetadata>asList(), 5).isEmpty());
+        assertEquals(0, mockServer.getRequestCount());
+    }
+
+    private Service withVersion(Service service, String resourceVersion) {
+        service.getMetadata().setResourceVersion(resourceVersion);
+        return service;
+    }
+
+    private Service createService(String name, boolean expose, String url) {
+        ServiceBuilder builder = new ServiceBuilder()
+            .withNewMetadata()
+              .withName(name)
+              .addToLabels("expose", Boolean.toString(expose))
+            .endMetadata();
+        if (url != null) {
+            builder.editMetadata().addToAnnotations(Annotations.Service.EXPOSE_URL, url).endMetadata();
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.core.service.openshift;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class ArchiveDigestTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void ignoresTimestamps() throws IOException {
+        String digest = ArchiveDigest.calculate(createTar("app.jar", "content", 1000L));
+        assertEquals(digest, ArchiveDigest.calculate(createTar("app.jar", "content", 2000L)));
+        assertNotEquals(digest, ArchiveDigest.calculate(createTar("app.jar", "changed", 1000L)));
+        assertNotEquals(digest, ArchiveDigest.calculate(createTar("other.jar", "content", 1000L)));
+        assertNotEquals(digest, ArchiveDigest.calculate(createTar("app.jar", "content", 1000L), "s2i"));
+    }
+
+    private File createTar(String name, String content, long mtime) throws IOException {
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        byte[] header = new byte[512];
+        put(header, 0, name);
+        put(header, 100, "0000644");
+        put(header, 124, String.format("%011o", data.length));
+        put(header, 136, String.format("%011o", mtime));
+        header[156] = '0';
+        byte[] block = Arrays.copyOf(data, 512);
+
+        File tar = folder.newFile();
+        try (OutputStream os = new FileOutputStream(tar)) {
+            os.write(header);
+            os.write(block);
+            os.write(new byte[1024]);
+        }
+        return tar;
+    }
+
+    private void put(byte[] header, int offset, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, header, offset, bytes.length);
+    }
+}
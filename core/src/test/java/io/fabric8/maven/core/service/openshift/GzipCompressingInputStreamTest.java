@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.core.service.openshift;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GzipCompressingInputStreamTest {
+
+    @Test
+    public void roundTrip() throws IOException {
+        // Half random, half compressible data spanning several buffers
+        byte[] data = new byte[300 * 1024];
+        Random random = new Random(42);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = i % 2 == 0 ? (byte) random.nextInt() : (byte) (i % 16);
+        }
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GzipCompressingInputStream is = new GzipCompressingInputStream(new ByteArrayInputStream(data), 6)) {
+            copy(is, compressed);
+            assertEquals(data.length, is.getBytesRead());
+            assertEquals(compressed.size(), is.getBytesWritten());
+            assertTrue(compressed.size() < data.length);
+        }
+
+        ByteArrayOutputStream uncompressed = new ByteArrayOutputStream();
+        try (InputStream is = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            copy(is, uncompressed);
+        }
+        assertArrayEquals(data, uncompressed.toByteArray());
+    }
+
+    private void copy(InputStream is, ByteArrayOutputStream os) throws IOException {
+        byte[] buffer = new byte[5000];
+        int read;
+        while ((read = is.read(buffer)) != -1) {
+            os.write(buffer, 0, read);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.core.service.openshift;
+
+import java.io.File;
+
+import io.fabric8.kubernetes.api.model.WatchEvent;
+import io.fabric8.maven.docker.util.ImageName;
+import io.fabric8.maven.docker.util.Logger;
+import io.fabric8.openshift.api.model.ImageStream;
+import io.fabric8.openshift.api.model.ImageStreamBuilder;
+import io.fabric8.openshift.api.model.ImageStreamListBuilder;
+import io.fabric8.openshift.client.server.mock.OpenShiftMockServer;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JMockit.class)
+public class ImageStreamServiceWatchTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mocked
+    private Logger log;
+
+    @Test
+    public void tagPublishedLater() throws Exception {
+        OpenShiftMockServer mockServer = new OpenShiftMockServer(false);
+        ImageStream withoutTag = new ImageStreamBuilder()
+            .withNewMetadata().withName("test").withResourceVersion("1").endMetadata()
+            .build();
+        ImageStream withTag = new ImageStreamBuilder(withoutTag)
+            .editMetadata().withResourceVersion("2").endMetadata()
+            .withNewStatus()
+              .addNewTag().withTag("1.0").addNewItem().withImage("ab12cd").endItem().endTag()
+            .endStatus()
+            .build();
+
+        mockServer.expect().get().withPath("/oapi/v1/namespaces/test/imagestreams/test").andReturn(200, withoutTag).always();
+        mockServer.expect().get().withPath("/oapi/v1/namespaces/test/imagestreams")
+                  .andReturn(200, new ImageStreamListBuilder().addToItems(withoutTag)
+                                                              .withNewMetadata().withResourceVersion("1").endMetadata().build())
+                  .always();
+        mockServer.expect().withPath("/oapi/v1/namespaces/test/imagestreams?fieldSelector=metadata.name%3Dtest&resourceVersion=1&watch=true")
+                  .andUpgradeToWebSocket().open()
+                  .waitFor(100)
+                  .andEmit(new WatchEvent(withTag, "MODIFIED"))
+                  .done().always();
+
+        ImageStreamService service = new ImageStreamService(mockServer.createOpenShiftClient(), log);
+        File target = new File(folder.getRoot(), "test-is.yml");
+        long start = System.currentTimeMillis();
+        service.appendImageStreamResource(new ImageName("test:1.0"), target);
+
+        // Resolved by the watch event, well before the first poll interval would have elapsed
+        assertTrue(System.currentTimeMillis() - start < 5000);
+        assertTrue(FileUtils.readFileToString(target).contains("test@ab12cd"));
+    }
+}
@@ -16,6 +16,7 @@
 package io.fabric8.maven.core.service.openshift;
 
 import java.io.File;
+import java.util.Arrays;
 
 import io.fabric8.kubernetes.api.model.KubernetesList;
 import io.fabric8.kubernetes.api.model.KubernetesListBuilder;
@@ -24,6 +25,7 @@ import io.fabric8.maven.core.config.BuildRecreateMode;
 import io.fabric8.maven.core.config.OpenShiftBuildStrategy;
 import io.fabric8.maven.core.service.BuildService;
 import io.fabric8.maven.core.service.Fabric8ServiceException;
+import io.fabric8.maven.core.util.Constants;
 import io.fabric8.maven.core.util.WebServerEventCollector;
 import io.fabric8.maven.docker.config.BuildImageConfiguration;
 import io.fabric8.maven.docker.config.ImageConfiguration;
@@ -33,8 +35,10 @@ import io.fabric8.openshift.api.model.Build;
 import io.fabric8.openshift.api.model.BuildBuilder;
 import io.fabric8.openshift.api.model.BuildConfig;
 import io.fabric8.openshift.api.model.BuildConfigBuilder;
+import io.fabric8.openshift.api.model.BuildConfigListBuilder;
 import io.fabric8.openshift.api.model.ImageStream;
 import io.fabric8.openshift.api.model.ImageStreamBuilder;
+import io.fabric8.openshift.api.model.ImageStreamListBuilder;
 import io.fabric8.openshift.api.model.ImageStreamStatusBuilder;
 import io.fabric8.openshift.api.model.NamedTagEventListBuilder;
 import io.fabric8.openshift.client.OpenShiftClient;
@@ -51,7 +55,9 @@ import mockit.Expectations;
 import mockit.Mocked;
 import mockit.integration.junit4.JMockit;
 
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 
 @RunWith(JMockit.class)
@@ -102,12 +108,7 @@ public class OpenshiftBuildServiceTest {
             minTimes = 0;
         }};
 
-        image = new ImageConfiguration.Builder()
-                .name(projectName)
-                .buildConfig(new BuildImageConfiguration.Builder()
-                        .from(projectName)
-                        .build()
-                ).build();
+        image = createImage(projectName);
 
 
         defaultConfig = new BuildService.BuildServiceConfig.Builder()
@@ -134,6 +135,41 @@ public class OpenshiftBuildServiceTest {
         collector.assertEventsNotRecorded("patch-build-config");
     }
 
+    @Test
+    public void testSuccessfulCompressedBuild() throws Exception {
+        BuildService.BuildServiceConfig config = defaultConfig.uploadCompressionLevel(1).build();
+        WebServerEventCollector<OpenShiftMockServer> collector = createMockServer(config, true, 50, false, false);
+        OpenShiftMockServer mockServer = collector.getMockServer();
+
+        OpenShiftClient client = mockServer.createOpenShiftClient();
+        OpenshiftBuildService service = new OpenshiftBuildService(client, logger, dockerServiceHub, config);
+        service.build(image);
+
+        collector.assertEventsRecordedInOrder("build-config-check", "new-build-config", "pushed");
+    }
+
+    @Test
+    public void testBuildWithResourceCache() throws Exception {
+        BuildResourceCache cache = new BuildResourceCache();
+        BuildService.BuildServiceConfig config = defaultConfig.buildResourceCache(cache).build();
+        WebServerEventCollector<OpenShiftMockServer> collector = createMockServer(config, true, 50, false, false);
+        OpenShiftMockServer mockServer = collector.getMockServer();
+        mockServer.expect().get().withPath("/oapi/v1/namespaces/test/buildconfigs")
+                .andReply(collector.record("list-build-configs").andReturn(200, new BuildConfigListBuilder().build())).once();
+        mockServer.expect().get().withPath("/oapi/v1/namespaces/test/imagestreams")
+                .andReply(collector.record("list-image-streams").andReturn(200, new ImageStreamListBuilder().build())).once();
+
+        OpenShiftClient client = mockServer.createOpenShiftClient();
+        OpenshiftBuildService service = new OpenshiftBuildService(client, logger, dockerServiceHub, config);
+        service.build(image);
+
+        collector.assertEventsRecordedInOrder("list-build-configs", "list-image-streams", "new-build-config", "pushed");
+        collector.assertEventsNotRecorded("build-config-check");
+        // Created resources are known to the cache without further lookups
+        assertNotNull(cache.getBuildConfig(client, projectName + config.getS2iBuildNameSuffix()));
+        assertNotNull(cache.getImageStream(client, projectName));
+    }
+
     @Test(expected = Fabric8ServiceException.class)
     public void testFailedBuild() throws Exception {
         BuildService.BuildServiceConfig config = defaultConfig.build();
@@ -160,14 +196,97 @@ public class OpenshiftBuildServiceTest {
         collector.assertEventsNotRecorded("new-build-config");
     }
 
+    @Test
+    public void testSkipUnchangedBuild() throws Exception {
+        BuildService.BuildServiceConfig config = defaultConfig.skipUnchangedBuilds(true).build();
+        OpenShiftMockServer mockServer = new OpenShiftMockServer(false);
+        WebServerEventCollector<OpenShiftMockServer> collector = new WebServerEventCollector<>(mockServer);
+        OpenshiftBuildService service = new OpenshiftBuildService(mockServer.createOpenShiftClient(), logger, dockerServiceHub, config);
+
+        String buildName = projectName + config.getS2iBuildNameSuffix();
+        BuildConfig bc = new BuildConfigBuilder()
+                .withNewMetadata()
+                .withName(buildName)
+                .addToAnnotations(Constants.BUILD_DIGEST_ANNOTATION, service.calculateBuildDigest(new File(baseDir, "Docker.tar"), image))
+                .endMetadata()
+                .withNewSpec()
+                .endSpec()
+                .build();
+        ImageStream imageStream = new ImageStreamBuilder()
+                .withNewMetadata()
+                .withName(projectName)
+                .endMetadata()
+                .withStatus(new ImageStreamStatusBuilder()
+                        .addNewTag()
+                        .withTag("latest")
+                        .addNewItem()
+                        .withImage("abcdef0123456789")
+                        .endItem()
+                        .endTag()
+                        .build())
+                .build();
+
+        mockServer.expect().get().withPath("/oapi/v1/namespaces/test/buildconfigs/" + buildName).andReturn(200, bc).always();
+        mockServer.expect().patch().withPath("/oapi/v1/namespaces/test/buildconfigs/" + buildName).andReturn(200, bc).always();
+        mockServer.expect().get().withPath("/oapi/v1/namespaces/test/builds?labelSelector=openshift.io/build-config.name%3D" + buildName)
+                .andReturn(200, new KubernetesListBuilder().build()).always();
+        mockServer.expect().get().withPath("/oapi/v1/namespaces/test/imagestreams/" + projectName).andReturn(200, imageStream).always();
+        mockServer.expect().post().withPath("/oapi/v1/namespaces/test/buildconfigs/" + buildName + "/instantiatebinary?commit=")
+                .andReply(collector.record("pushed").andReturn(201, imageStream)).once();
+
+        service.build(image);
+
+        collector.assertEventsNotRecorded("pushed");
+    }
+
+    @Test
+    public void testConcurrentBuilds() throws Exception {
+        BuildService.BuildServiceConfig config = defaultConfig.build();
+        OpenShiftMockServer mockServer = new OpenShiftMockServer(false);
+        WebServerEventCollector<OpenShiftMockServer> collector = new WebServerEventCollector<>(mockServer);
+        expectBuild(collector, config, "app-a", "app-a-", true, 200, false, false);
+        expectBuild(collector, config, "app-b", "app-b-", true, 50, false, false);
+
+        OpenshiftBuildService service = new OpenshiftBuildService(mockServer.createOpenShiftClient(), logger, dockerServiceHub, config);
+        service.build(Arrays.asList(createImage("app-a"), createImage("app-b")), 2);
+
+        collector.assertEventsRecorded("app-a-pushed", "app-b-pushed");
+    }
+
+    @Test
+    public void testConcurrentBuildsReportFirstFailure() throws Exception {
+        BuildService.BuildServiceConfig config = defaultConfig.build();
+        OpenShiftMockServer mockServer = new OpenShiftMockServer(false);
+        WebServerEventCollector<OpenShiftMockServer> collector = new WebServerEventCollector<>(mockServer);
+        // The second build fails before the first one
+        expectBuild(collector, config, "app-a", "app-a-", false, 500, false, false);
+        expectBuild(collector, config, "app-b", "app-b-", false, 50, false, false);
+
+        OpenshiftBuildService service = new OpenshiftBuildService(mockServer.createOpenShiftClient(), logger, dockerServiceHub, config);
+        try {
+            service.build(Arrays.asList(createImage("app-a"), createImage("app-b")), 2);
+            fail("Failed builds should be reported");
+        } catch (Fabric8ServiceException ex) {
+            assertTrue(ex.getCause().getMessage(), ex.getCause().getMessage().contains("OpenShift Build app-a"));
+        }
+        collector.assertEventsRecorded("app-a-pushed", "app-b-pushed");
+    }
+
     protected WebServerEventCollector<OpenShiftMockServer> createMockServer(BuildService.BuildServiceConfig config, boolean success, long buildDelay, boolean buildConfigExists, boolean
             imageStreamExists) {
         OpenShiftMockServer mockServer = new OpenShiftMockServer(false);
         WebServerEventCollector<OpenShiftMockServer> collector = new WebServerEventCollector<>(mockServer);
+        expectBuild(collector, config, projectName, "", success, buildDelay, buildConfigExists, imageStreamExists);
+        return collector;
+    }
+
+    private void expectBuild(WebServerEventCollector<OpenShiftMockServer> collector, BuildService.BuildServiceConfig config, String name, String eventPrefix,
+                             boolean success, long buildDelay, boolean buildConfigExists, boolean imageStreamExists) {
+        OpenShiftMockServer mockServer = collector.getMockServer();
 
         BuildConfig bc = new BuildConfigBuilder()
                 .withNewMetadata()
-                .withName(projectName + config.getS2iBuildNameSuffix())
+                .withName(name + config.getS2iBuildNameSuffix())
                 .endMetadata()
                 .withNewSpec()
                 .endSpec()
@@ -175,7 +294,7 @@ public class OpenshiftBuildServiceTest {
 
         ImageStream imageStream = new ImageStreamBuilder()
                 .withNewMetadata()
-                .withName(projectName)
+                .withName(name)
                 .endMetadata()
                 .withStatus(new ImageStreamStatusBuilder()
                         .addNewTagLike(new NamedTagEventListBuilder()
@@ -190,7 +309,7 @@ public class OpenshiftBuildServiceTest {
         KubernetesList builds = new KubernetesListBuilder().withItems(
                 new BuildBuilder()
                         .withNewMetadata()
-                        .withName(projectName)
+                        .withName(name)
                         .endMetadata()
                         .build())
                 .withNewMetadata().withResourceVersion("1").endMetadata()
@@ -203,38 +322,45 @@ public class OpenshiftBuildServiceTest {
                 .build();
 
         if (!buildConfigExists) {
-            mockServer.expect().get().withPath("/oapi/v1/namespaces/test/buildconfigs/" + projectName + config.getS2iBuildNameSuffix()).andReply(collector.record("build-config-check").andReturn
+            mockServer.expect().get().withPath("/oapi/v1/namespaces/test/buildconfigs/" + name + config.getS2iBuildNameSuffix()).andReply(collector.record(eventPrefix + "build-config-check").andReturn
                     (404, "")).once();
-            mockServer.expect().post().withPath("/oapi/v1/namespaces/test/buildconfigs").andReply(collector.record("new-build-config").andReturn(201, bc)).once();
+            mockServer.expect().post().withPath("/oapi/v1/namespaces/test/buildconfigs").andReply(collector.record(eventPrefix + "new-build-config").andReturn(201, bc)).once();
         } else {
-            mockServer.expect().patch().withPath("/oapi/v1/namespaces/test/buildconfigs/" + projectName + config.getS2iBuildNameSuffix()).andReply(collector.record("patch-build-config").andReturn
+            mockServer.expect().patch().withPath("/oapi/v1/namespaces/test/buildconfigs/" + name + config.getS2iBuildNameSuffix()).andReply(collector.record(eventPrefix + "patch-build-config").andReturn
                     (200, bc)).once();
         }
-        mockServer.expect().get().withPath("/oapi/v1/namespaces/test/buildconfigs/" + projectName + config.getS2iBuildNameSuffix()).andReply(collector.record("build-config-check").andReturn(200,
+        mockServer.expect().get().withPath("/oapi/v1/namespaces/test/buildconfigs/" + name + config.getS2iBuildNameSuffix()).andReply(collector.record(eventPrefix + "build-config-check").andReturn(200,
                 bc)).always();
 
 
         if (!imageStreamExists) {
-            mockServer.expect().get().withPath("/oapi/v1/namespaces/test/imagestreams/" + projectName).andReturn(404, "").once();
+            mockServer.expect().get().withPath("/oapi/v1/namespaces/test/imagestreams/" + name).andReturn(404, "").once();
         }
-        mockServer.expect().get().withPath("/oapi/v1/namespaces/test/imagestreams/" + projectName).andReturn(200, imageStream).always();
+        mockServer.expect().get().withPath("/oapi/v1/namespaces/test/imagestreams/" + name).andReturn(200, imageStream).always();
 
         mockServer.expect().post().withPath("/oapi/v1/namespaces/test/imagestreams").andReturn(201, imageStream).once();
 
-        mockServer.expect().post().withPath("/oapi/v1/namespaces/test/buildconfigs/" + projectName + config.getS2iBuildNameSuffix() + "/instantiatebinary?commit=").andReply(collector.record
-                ("pushed").andReturn(201, imageStream)).once();
+        mockServer.expect().post().withPath("/oapi/v1/namespaces/test/buildconfigs/" + name + config.getS2iBuildNameSuffix() + "/instantiatebinary?commit=").andReply(collector.record
+                (eventPrefix + "pushed").andReturn(201, imageStream)).once();
 
-        mockServer.expect().get().withPath("/oapi/v1/namespaces/test/builds").andReply(collector.record("check-build").andReturn(200, builds)).always();
-        mockServer.expect().get().withPath("/oapi/v1/namespaces/test/builds?labelSelector=openshift.io/build-config.name%3D" + projectName + config.getS2iBuildNameSuffix()).andReturn(200, builds)
+        mockServer.expect().get().withPath("/oapi/v1/namespaces/test/builds").andReply(collector.record(eventPrefix + "check-build").andReturn(200, builds)).always();
+        mockServer.expect().get().withPath("/oapi/v1/namespaces/test/builds?labelSelector=openshift.io/build-config.name%3D" + name + config.getS2iBuildNameSuffix()).andReturn(200, builds)
                 .always();
 
-        mockServer.expect().withPath("/oapi/v1/namespaces/test/builds?fieldSelector=metadata.name%3D" + projectName + "&resourceVersion=1&watch=true")
+        mockServer.expect().withPath("/oapi/v1/namespaces/test/builds?fieldSelector=metadata.name%3D" + name + "&resourceVersion=1&watch=true")
                 .andUpgradeToWebSocket().open()
                 .waitFor(buildDelay)
                 .andEmit(new WatchEvent(build, "MODIFIED"))
                 .done().always();
+    }
 
-        return collector;
+    private ImageConfiguration createImage(String name) {
+        return new ImageConfiguration.Builder()
+                .name(name)
+                .buildConfig(new BuildImageConfiguration.Builder()
+                        .from(name)
+                        .build()
+                ).build();
     }
 
 }
\ No newline at end of file
@@ -17,14 +17,21 @@
 package io.fabric8.maven.core.util;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Properties;
 import java.util.Set;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -36,6 +43,9 @@ import static org.junit.Assert.assertTrue;
 
 public class ClassUtilTest {
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void findOne() throws IOException {
         File root = getRelativePackagePath("mainclass/one");
@@ -60,6 +70,30 @@ public class ClassUtilTest {
         assertEquals(0,ret.size());
     }
 
+    @Test
+    public void findWithIndex() throws IOException {
+        File root = getRelativePackagePath("mainclass/two");
+        File indexFile = new File(folder.getRoot(), "fabric8/main-classes.properties");
+        List<String> ret = ClassUtil.findMainClasses(root, indexFile);
+        assertEquals(2, ret.size());
+        assertEquals("OneMain", ret.get(0));
+
+        // Unchanged class files are taken from the index
+        Properties index = new Properties();
+        try (InputStream is = new FileInputStream(indexFile)) {
+            index.load(is);
+        }
+        String entry = index.getProperty("OneMain.class");
+        assertTrue(entry.endsWith(":true"));
+        index.setProperty("OneMain.class", entry.replace(":true", ":false"));
+        try (OutputStream os = new FileOutputStream(indexFile)) {
+            index.store(os, null);
+        }
+        ret = ClassUtil.findMainClasses(root, indexFile);
+        assertEquals(1, ret.size());
+        assertEquals("another.sub.a.bit.deeper.TwoMain", ret.get(0));
+    }
+
     private File getRelativePackagePath(String subpath) {
         File parent =
             new File(decodeUrl(this.getClass().getProtectionDomain().getCodeSource().getLocation().getPath()));
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.core.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class IndexedURLClassLoaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void resourcesFromDirectoriesAndJars() throws IOException {
+        File classes = folder.newFolder("classes");
+        FileUtils.writeStringToFile(new File(classes, "application.properties"), "from=classes");
+
+        File jar = new File(folder.getRoot(), "lib.jar");
+        try (JarOutputStream os = new JarOutputStream(new FileOutputStream(jar))) {
+            os.putNextEntry(new JarEntry("META-INF/"));
+            os.putNextEntry(new JarEntry("application.properties"));
+            os.write("from=jar".getBytes("UTF-8"));
+            os.putNextEntry(new JarEntry("lib/only-in-jar.txt"));
+            os.write("jar".getBytes("UTF-8"));
+        }
+
+        try (IndexedURLClassLoader loader =
+                 new IndexedURLClassLoader(new URL[] { classes.toURI().toURL(), jar.toURI().toURL() }, null)) {
+            // First class path element wins
+            assertEquals("from=classes", IOUtils.toString(loader.findResource("application.properties"), "UTF-8"));
+            assertEquals("jar", IOUtils.toString(loader.getResource("lib/only-in-jar.txt"), "UTF-8"));
+            assertNotNull(loader.findResource("META-INF"));
+            assertNull(loader.findResource("not/there.txt"));
+
+            List<URL> all = Collections.list(loader.getResources("application.properties"));
+            assertEquals(2, all.size());
+            assertEquals("from=jar", IOUtils.toString(all.get(1), "UTF-8"));
+        }
+    }
+
+    @Test
+    public void classLookupWithoutLoading() throws IOException {
+        File jar = new File(folder.getRoot(), "classes.jar");
+        try (JarOutputStream os = new JarOutputStream(new FileOutputStream(jar))) {
+            // Not a valid class file, but it must not be loaded for the check anyway
+            os.putNextEntry(new JarEntry("com/example/Main.class"));
+            os.write(new byte[] { 1, 2, 3 });
+        }
+
+        try (IndexedURLClassLoader loader = new IndexedURLClassLoader(new URL[] { jar.toURI().toURL() })) {
+            assertTrue(loader.hasClass("com.example.Main"));
+            assertTrue(loader.hasClass("java.lang.String"));
+            assertFalse(loader.hasClass("com.example.Other"));
+        }
+    }
+}
@@ -21,18 +21,27 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.KubernetesList;
 import io.fabric8.kubernetes.api.model.KubernetesListBuilder;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
 
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import static io.fabric8.maven.core.util.KubernetesResourceUtil.API_VERSION;
 import static io.fabric8.maven.core.util.KubernetesResourceUtil.DEFAULT_RESOURCE_VERSIONING;
 import static io.fabric8.maven.core.util.KubernetesResourceUtil.getResource;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -42,6 +51,9 @@ import static org.junit.Assert.fail;
  */
 public class KubernetesResourceUtilTest {
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private static File fabric8Dir;
 
     @BeforeClass
@@ -150,5 +162,80 @@ public class KubernetesResourceUtilTest {
             assertEquals("v2",item.getApiVersion());
         }
     }
-}
 
+    @Test
+    public void specHashIgnoresRuntimeState() {
+        Service desired = new ServiceBuilder()
+            .withNewMetadata().withName("pong").addToLabels("app", "pong").endMetadata()
+            .withNewSpec().addNewPort().withPort(8080).endPort().endSpec()
+            .build();
+        String hash = KubernetesResourceUtil.computeSpecHash(desired);
+
+        KubernetesResourceUtil.addSpecHashAnnotation(desired);
+        assertEquals(hash, KubernetesResourceUtil.getSpecHashAnnotation(desired));
+
+        Service live = new ServiceBuilder(desired)
+            .editMetadata().withResourceVersion("42").withUid("1234").withNamespace("test").endMetadata()
+            .withNewStatus().endStatus()
+            .build();
+        assertEquals(hash, KubernetesResourceUtil.computeSpecHash(live));
+
+        Service changed = new ServiceBuilder(desired)
+            .editSpec().editFirstPort().withPort(9090).endPort().endSpec()
+            .build();
+        assertNotEquals(hash, KubernetesResourceUtil.computeSpecHash(changed));
+    }
+
+    @Test
+    public void writeAndLoadMultiDocument() throws IOException {
+        KubernetesList list = new KubernetesListBuilder()
+            .addNewConfigMapItem().withNewMetadata().withName("config").endMetadata().addToData("key", "value").endConfigMapItem()
+            .addNewServiceItem().withNewMetadata().withName("pong").endMetadata().endServiceItem()
+            .build();
+
+        File single = KubernetesResourceUtil.writeResource(list, new File(folder.getRoot(), "single"), ResourceFileType.yaml);
+        File multi = KubernetesResourceUtil.writeResource(list, new File(folder.getRoot(), "multi"), ResourceFileType.yaml, true);
+
+        assertEquals(new File(folder.getRoot(), "multi.yml"), multi);
+        assertEquals(2, countDocuments(multi));
+        assertEquals(1, countDocuments(single));
+        assertEquals(2, KubernetesResourceUtil.loadResources(multi).size());
+        assertEquals(2, KubernetesResourceUtil.loadResources(single).size());
+    }
+
+    @Test
+    public void streamDeliversItemsBeforeManifestIsRead() throws IOException {
+        KubernetesList list = new KubernetesListBuilder()
+            .addNewConfigMapItem().withNewMetadata().withName("config").endMetadata().addToData("key", "value").endConfigMapItem()
+            .addNewServiceItem().withNewMetadata().withName("pong").endMetadata().endServiceItem()
+            .build();
+        File manifest = KubernetesResourceUtil.writeResource(list, new File(folder.getRoot(), "truncated"), ResourceFileType.yaml);
+        // A broken document at the end can only be detected after the whole manifest has been read
+        java.nio.file.Files.write(manifest.toPath(), "---\nkind: [\n".getBytes(StandardCharsets.UTF_8),
+                                  java.nio.file.StandardOpenOption.APPEND);
+
+        final Set<String> names = new HashSet<>();
+        try {
+            KubernetesResourceUtil.streamResources(manifest, new KubernetesResourceUtil.ResourceConsumer() {
+                @Override
+                public void consume(HasMetadata resource) {
+                    names.add(resource.getMetadata().getName());
+                }
+            });
+            fail("Broken manifest should not be loaded");
+        } catch (IOException exp) {
+            // expected
+        }
+        assertEquals(new HashSet<>(Arrays.asList("config", "pong")), names);
+    }
+
+    private int countDocuments(File file) throws IOException {
+        int count = 0;
+        for (String line : java.nio.file.Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            if (line.startsWith("---")) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -16,11 +16,19 @@
 
 package io.fabric8.maven.core.util;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Iterator;
 import java.util.List;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import static org.junit.Assert.*;
 
@@ -33,6 +41,9 @@ public class PluginServiceFactoryTest {
     private class TestContext {}
     private PluginServiceFactory<TestContext> pluginServiceFactory;
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Before
     public void setup() {
         pluginServiceFactory = new PluginServiceFactory<>(new TestContext());
@@ -50,6 +61,40 @@ public class PluginServiceFactoryTest {
         }
     }
 
+    @Test
+    public void cachedDefinitionsCreateNewServices() {
+        List<TestService> first = pluginServiceFactory.createServiceObjects("service/test-services-default", "service/test-services");
+        List<TestService> second = new PluginServiceFactory<>(new TestContext())
+            .createServiceObjects("service/test-services-default", "service/test-services");
+        assertEquals(first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getName(), second.get(i).getName());
+            assertNotSame(first.get(i), second.get(i));
+        }
+    }
+
+    @Test
+    public void additionalClassLoadersAreNotCached() throws IOException {
+        File descriptor = new File(folder.getRoot(), "service/test-project-services");
+        descriptor.getParentFile().mkdirs();
+        URLClassLoader loader = new URLClassLoader(new URL[] { folder.getRoot().toURI().toURL() });
+
+        writeDescriptor(descriptor, "io.fabric8.maven.core.util.PluginServiceFactoryTest$Test1");
+        List<TestService> first = new PluginServiceFactory<>(new TestContext(), loader)
+            .createServiceObjects("service/test-project-services");
+        writeDescriptor(descriptor, "io.fabric8.maven.core.util.PluginServiceFactoryTest$Test2");
+        List<TestService> second = new PluginServiceFactory<>(new TestContext(), loader)
+            .createServiceObjects("service/test-project-services");
+
+        assertEquals("one", first.get(0).getName());
+        assertEquals("two", second.get(0).getName());
+        loader.close();
+    }
+
+    private void writeDescriptor(File descriptor, String line) throws IOException {
+        Files.write(descriptor.toPath(), line.getBytes(StandardCharsets.UTF_8));
+    }
+
     @Test
     public void errorHandling() {
         try {
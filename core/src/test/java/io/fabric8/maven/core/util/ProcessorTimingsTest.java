@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.core.util;
+
+import java.io.File;
+import java.io.IOException;
+
+import io.fabric8.maven.docker.util.Logger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JMockit.class)
+public class ProcessorTimingsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mocked
+    private Logger log;
+
+    @Test
+    public void recordAndWriteReport() throws IOException {
+        File report = new File(folder.getRoot(), "fabric8/timings.json");
+        ProcessorTimings timings = new ProcessorTimings(report);
+        for (int i = 0; i < 2; i++) {
+            ProcessorTimings.Sample sample = timings.start();
+            timings.stop("enricher", "fmp-name", "adapt", sample);
+        }
+        timings.record("enricher", "fmp-project", "adapt", 5000);
+        timings.writeReport(log);
+
+        JsonNode processors = new ObjectMapper().readTree(report).get("processors");
+        assertEquals(2, processors.size());
+        assertEquals("fmp-name", processors.get(0).get("name").asText());
+        assertEquals(2, processors.get(0).get("calls").asInt());
+        assertEquals(5, processors.get(1).get("wallMicros").asLong());
+        assertTrue(processors.get(1).get("cpuMicros").isNull());
+    }
+
+    @Test
+    public void disabled() throws IOException {
+        ProcessorTimings timings = ProcessorTimings.DISABLED;
+        assertFalse(timings.isEnabled());
+        ProcessorTimings.Sample sample = timings.start();
+        assertTrue(timings.stop("generator", "spring-boot", "customize", sample) >= 0);
+        timings.writeReport(log);
+    }
+}
@@ -17,6 +17,7 @@
 package io.fabric8.maven.core.util;
 
 import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
@@ -26,7 +27,9 @@ import java.util.List;
 
 import io.fabric8.maven.core.config.ProcessorConfig;
 import io.fabric8.maven.core.config.Profile;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import static org.junit.Assert.*;
 
@@ -36,6 +39,9 @@ import static org.junit.Assert.*;
  */
 public class ProfileUtilTest {
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void simple() throws IOException {
         InputStream is = getClass().getResourceAsStream("/fabric8/config/profiles-lookup-dir/profiles.yaml");
@@ -81,6 +87,39 @@ public class ProfileUtilTest {
         assertNull(ProfileUtil.lookup("three", dir));
     }
 
+    @Test
+    public void lookupCached() throws IOException {
+        File dir = folder.newFolder("profiles");
+        File profileFile = new File(dir, "profiles.yml");
+        writeProfile(profileFile, "cached", "v1");
+
+        long hits = ProfileUtil.getCacheHits();
+        long misses = ProfileUtil.getCacheMisses();
+        Profile profile = ProfileUtil.lookup("cached", dir);
+        assertEquals("v1", profile.getEnricherConfig().getConfig("base", "url"));
+        assertSame(profile, ProfileUtil.lookup("cached", dir));
+        assertEquals(hits + 1, ProfileUtil.getCacheHits());
+        assertEquals(misses + 1, ProfileUtil.getCacheMisses());
+
+        // A changed profile file must be read again
+        writeProfile(profileFile, "cached", "version2");
+        assertTrue(profileFile.setLastModified(profileFile.lastModified() + 2000));
+        Profile changed = ProfileUtil.lookup("cached", dir);
+        assertNotSame(profile, changed);
+        assertEquals("version2", changed.getEnricherConfig().getConfig("base", "url"));
+        assertEquals(misses + 2, ProfileUtil.getCacheMisses());
+    }
+
+    private void writeProfile(File file, String name, String url) throws IOException {
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write("- name: " + name + "\n" +
+                         "  enricher:\n" +
+                         "    config:\n" +
+                         "      base:\n" +
+                         "        url: " + url + "\n");
+        }
+    }
+
     public File getProfileDir() throws URISyntaxException {
         return new File(getClass().getResource("/fabric8/config/profiles-lookup-dir/profiles.yaml").toURI()).getParentFile();
     }
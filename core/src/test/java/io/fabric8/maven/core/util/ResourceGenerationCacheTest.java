@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.core.util;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.fabric8.maven.core.config.ProcessorConfig;
+import io.fabric8.maven.docker.util.Logger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(JMockit.class)
+public class ResourceGenerationCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mocked
+    private Logger log;
+
+    @Test
+    public void keyChangesWithInputs() throws IOException {
+        File fragments = folder.newFolder("fabric8");
+        write(new File(fragments, "deployment.yml"), "spec: {}");
+
+        String key = createKey(fragments, "default");
+        assertNotNull(key);
+        assertEquals(key, createKey(fragments, "default"));
+        assertNotEquals(key, createKey(fragments, "other"));
+
+        write(new File(fragments, "deployment.yml"), "spec: { replicas: 2 }");
+        assertNotEquals(key, createKey(fragments, "default"));
+    }
+
+    @Test
+    public void keyChangesWithFileStamps() throws IOException {
+        File classes = folder.newFolder("classes");
+        File props = new File(classes, "application.properties");
+        write(props, "server.port=8080");
+
+        String key = new ResourceGenerationCache.KeyBuilder().addFileStamps("classes", classes).build();
+        assertEquals(key, new ResourceGenerationCache.KeyBuilder().addFileStamps("classes", classes).build());
+
+        write(props, "server.port=18080");
+        assertNotEquals(key, new ResourceGenerationCache.KeyBuilder().addFileStamps("classes", classes).build());
+    }
+
+    @Test
+    public void fileStampsSkipExcludes() throws IOException {
+        File classes = folder.newFolder("classes");
+        File generated = new File(classes, "META-INF/fabric8");
+        generated.mkdirs();
+        write(new File(classes, "application.properties"), "server.port=8080");
+
+        String key = new ResourceGenerationCache.KeyBuilder().addFileStamps("classes", classes, generated).build();
+        write(new File(generated, "kubernetes.yml"), "items: []");
+        assertEquals(key, new ResourceGenerationCache.KeyBuilder().addFileStamps("classes", classes, generated).build());
+    }
+
+    @Test
+    public void lookupAfterStore() throws IOException {
+        File output = folder.newFile("kubernetes.yml");
+        write(output, "items: []");
+        ResourceGenerationCache cache = new ResourceGenerationCache(folder.newFolder("cache"), log);
+        cache.store("abc", Arrays.asList(new ResourceGenerationCache.Output("yml", "kubernetes", output)));
+
+        List<ResourceGenerationCache.Output> outputs = cache.lookup("abc");
+        assertEquals(1, outputs.size());
+        assertEquals("kubernetes", outputs.get(0).getClassifier());
+        assertEquals(output.getAbsoluteFile(), outputs.get(0).getFile());
+        assertNull(cache.lookup("def"));
+
+        // Modified outputs invalidate the entry
+        write(output, "items: [ {} ]");
+        assertNull(cache.lookup("abc"));
+    }
+
+    private String createKey(File fragments, String profile) {
+        return new ResourceGenerationCache.KeyBuilder()
+            .addFile("resourceDir", fragments)
+            .add("profile", profile)
+            .add("enricher", new ProcessorConfig(Arrays.asList("fmp-name"), Collections.<String>emptySet(), null))
+            .build();
+    }
+
+    private void write(File file, String content) throws IOException {
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(content);
+        }
+    }
+}
@@ -43,10 +43,10 @@ abstract public class AbstractLiveEnricher extends BaseEnricher {
     }
 
     /**
-     * Returns true if in offline mode, "false" if not speciied.
-     * Can be overriden by
+     * Returns true if in online mode, i.e. if this enricher queries the cluster.
+     * Can be overriden by the <code>online</code> config or the <code>fabric8.online</code> property.
      */
-    protected boolean isOnline() {
+    public boolean isOnline() {
         String isOnline = getConfig(Config.online);
         if (isOnline != null) {
             return Configs.asBoolean(isOnline);
@@ -22,6 +22,7 @@ import io.fabric8.maven.core.config.ProcessorConfig;
 import io.fabric8.maven.core.config.ResourceConfig;
 import io.fabric8.maven.core.util.GoalFinder;
 import io.fabric8.maven.core.util.OpenShiftDependencyResources;
+import io.fabric8.maven.core.util.ProcessorTimings;
 import io.fabric8.maven.docker.config.ImageConfiguration;
 import io.fabric8.maven.docker.util.Logger;
 import org.apache.maven.execution.MavenSession;
@@ -50,6 +51,7 @@ public class EnricherContext {
     private OpenShiftDependencyResources openshiftDependencyResources;
     private MavenSession session;
     private GoalFinder goalFinder;
+    private ProcessorTimings timings = ProcessorTimings.DISABLED;
 
     private EnricherContext() {}
 
@@ -85,6 +87,14 @@ public class EnricherContext {
         return openshiftDependencyResources;
     }
 
+    public ProcessorTimings getTimings() {
+        return timings;
+    }
+
+    public MavenSession getSession() {
+        return session;
+    }
+
     /**
      * Returns true if maven is running with any of the given goals
      */
@@ -152,6 +162,11 @@ public class EnricherContext {
             return this;
         }
 
+        public Builder timings(ProcessorTimings timings) {
+            ctx.timings = timings;
+            return this;
+        }
+
         public EnricherContext build() {
             return ctx;
         }
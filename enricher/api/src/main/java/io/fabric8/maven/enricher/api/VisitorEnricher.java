@@ -0,0 +1,39 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.enricher.api;
+
+import java.util.List;
+
+import io.fabric8.kubernetes.api.builder.TypedVisitor;
+import io.fabric8.kubernetes.api.model.KubernetesListBuilder;
+
+/**
+ * Enricher whose {@link #adapt(KubernetesListBuilder)} step only consists of visitors
+ * on certain builder types. The visitors of such enrichers can be combined into a single
+ * traversal of the resource descriptor instead of each enricher walking the whole tree
+ * on its own.
+ */
+public interface VisitorEnricher extends Enricher {
+
+    /**
+     * Get the visitors for the adapt step. The type parameter of each visitor declares
+     * the builder type it touches. Applying these visitors in the given order must be
+     * equivalent to calling {@link #adapt(KubernetesListBuilder)}.
+     *
+     * @return list of visitors, never null
+     */
+    List<TypedVisitor<?>> getAdaptVisitors();
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.enricher.api.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import io.fabric8.maven.core.util.MavenUtil;
+import io.fabric8.utils.GitHelpers;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Branch, commit id and remote URL of a Git repository. The metadata of a repository is read only once
+ * per Maven session and shared by all modules of a reactor build which are part of the same repository,
+ * as opening a repository with large pack files can be expensive.
+ */
+public class GitMetadata {
+
+    private final File gitFolder;
+    private final String branch;
+    private final String commitId;
+    private final String remoteUrl;
+
+    GitMetadata(File gitFolder, String branch, String commitId, String remoteUrl) {
+        this.gitFolder = gitFolder;
+        this.branch = branch;
+        this.commitId = commitId;
+        this.remoteUrl = remoteUrl;
+    }
+
+    /**
+     * Get the metadata of the Git repository the root project of a project is part of
+     *
+     * @param session current session, used for sharing the metadata. Can be null, in which case the metadata
+     *                is shared via the root project of the given project.
+     * @param project project to lookup
+     * @return the metadata or null if the project is not part of a Git repository
+     */
+    public static GitMetadata forProject(MavenSession session, MavenProject project) throws IOException, GitAPIException {
+        File gitFolder = GitUtil.findGitFolder(project);
+        return gitFolder != null ? get(getCache(session, project), gitFolder) : null;
+    }
+
+    /**
+     * Get the metadata of the Git repository a directory is part of
+     *
+     * @param session current session, used for sharing the metadata
+     * @param dir directory to lookup
+     * @return the metadata or null if the directory is not part of a Git repository
+     */
+    public static GitMetadata forDirectory(MavenSession session, File dir) throws IOException, GitAPIException {
+        File gitFolder = GitHelpers.findGitFolder(dir);
+        return gitFolder != null ? get(getCache(session, session.getCurrentProject()), gitFolder) : null;
+    }
+
+    /**
+     * Start reading the metadata for a project in the background, so that it is already available
+     * when it is needed later on. Errors are reported when the metadata is requested.
+     *
+     * @param session current session
+     * @param project project to lookup
+     */
+    public static void prefetch(MavenSession session, MavenProject project) {
+        File gitFolder = GitUtil.findGitFolder(project);
+        if (gitFolder != null) {
+            FutureTask<GitMetadata> task = register(getCache(session, project), gitFolder);
+            if (task != null) {
+                Thread thread = new Thread(task, "fabric8-git-metadata");
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+    }
+
+    public File getGitFolder() {
+        return gitFolder;
+    }
+
+    /**
+     * @return current branch or null if it cannot be determined
+     */
+    public String getBranch() {
+        return branch;
+    }
+
+    /**
+     * @return id of the head commit or null if there is no commit yet
+     */
+    public String getCommitId() {
+        return commitId;
+    }
+
+    /**
+     * @return URL of the remote "origin" or null if there is no such remote
+     */
+    public String getRemoteUrl() {
+        return remoteUrl;
+    }
+
+    // ==========================================================================================
+
+    private static GitMetadata get(ConcurrentMap<String, FutureTask<GitMetadata>> cache, File gitFolder)
+        throws IOException, GitAPIException {
+        FutureTask<GitMetadata> task = register(cache, gitFolder);
+        if (task != null) {
+            task.run();
+        } else {
+            task = cache.get(getKey(gitFolder));
+        }
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading Git repository " + gitFolder, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof GitAPIException) {
+                throw (GitAPIException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Cannot read Git repository " + gitFolder + ": " + cause, cause);
+        }
+    }
+
+    // Register a new task for reading the repository, returns null if there is already one
+    private static FutureTask<GitMetadata> register(ConcurrentMap<String, FutureTask<GitMetadata>> cache,
+                                                    final File gitFolder) {
+        FutureTask<GitMetadata> task = new FutureTask<>(new Callable<GitMetadata>() {
+            @Override
+            public GitMetadata call() throws IOException, GitAPIException {
+                return read(gitFolder);
+            }
+        });
+        return cache.putIfAbsent(getKey(gitFolder), task) == null ? task : null;
+    }
+
+    private static GitMetadata read(File gitFolder) throws IOException, GitAPIException {
+        try (Repository repository = GitUtil.openGitRepository(gitFolder)) {
+            return new GitMetadata(gitFolder,
+                                   repository.getBranch(),
+                                   GitUtil.getGitCommitId(repository),
+                                   repository.getConfig().getString("remote", "origin", "url"));
+        }
+    }
+
+    private static String getKey(File gitFolder) {
+        return gitFolder.getAbsoluteFile().toURI().normalize().getPath();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConcurrentMap<String, FutureTask<GitMetadata>> getCache(MavenSession session, MavenProject project) {
+        MavenProject holder = session != null && session.getTopLevelProject() != null ?
+            session.getTopLevelProject() : MavenUtil.getRootProject(project);
+        synchronized (holder) {
+            String key = GitMetadata.class.getName();
+            ConcurrentMap<String, FutureTask<GitMetadata>> cache =
+                (ConcurrentMap<String, FutureTask<GitMetadata>>) holder.getContextValue(key);
+            if (cache == null) {
+                cache = new ConcurrentHashMap<>();
+                holder.setContextValue(key, cache);
+            }
+            return cache;
+        }
+    }
+}
@@ -36,6 +36,20 @@ public class GitUtil {
 
 
     public static Repository getGitRepository(MavenProject project) throws IOException {
+        File gitFolder = findGitFolder(project);
+        if (gitFolder == null) {
+            // No git repository found
+            return null;
+        }
+        return openGitRepository(gitFolder);
+    }
+
+    /**
+     * Find the Git folder of the repository the root project of a project is part of
+     *
+     * @return the ".git" folder or null if the project is not part of a git repository
+     */
+    public static File findGitFolder(MavenProject project) {
         MavenProject rootProject = MavenUtil.getRootProject(project);
         File baseDir = rootProject.getBasedir();
         if (baseDir == null) {
@@ -45,11 +59,10 @@ public class GitUtil {
             // TODO: Why is this check needed ?
             baseDir = new File(System.getProperty("basedir", "."));
         }
-        File gitFolder = GitHelpers.findGitFolder(baseDir);
-        if (gitFolder == null) {
-            // No git repository found
-            return null;
-        }
+        return GitHelpers.findGitFolder(baseDir);
+    }
+
+    public static Repository openGitRepository(File gitFolder) throws IOException {
         FileRepositoryBuilder builder = new FileRepositoryBuilder();
         Repository repository = builder
             .readEnvironment()
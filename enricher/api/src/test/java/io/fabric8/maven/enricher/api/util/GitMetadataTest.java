@@ -0,0 +1,101 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.enricher.api.util;
+
+import java.io.File;
+
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.storage.file.FileBasedConfig;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(JMockit.class)
+public class GitMetadataTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mocked
+    MavenSession session;
+
+    @Test
+    public void sharedWithinSession() throws Exception {
+        File repoDir = folder.newFolder("repo");
+        File moduleDir = new File(repoDir, "module");
+        moduleDir.mkdirs();
+        String commitId;
+        try (Git git = Git.init().setDirectory(repoDir).call()) {
+            commitId = git.commit().setMessage("Initial").call().getName();
+            FileBasedConfig config = (FileBasedConfig) git.getRepository().getConfig();
+            config.setString("remote", "origin", "url", "https://github.com/fabric8io/example.git");
+            config.save();
+        }
+        final MavenProject topLevel = new MavenProject();
+        topLevel.setFile(new File(repoDir, "pom.xml"));
+        MavenProject module = new MavenProject();
+        module.setFile(new File(moduleDir, "pom.xml"));
+        new Expectations() {{
+            session.getTopLevelProject(); result = topLevel;
+        }};
+
+        GitMetadata metadata = GitMetadata.forProject(session, topLevel);
+        assertEquals("master", metadata.getBranch());
+        assertEquals(commitId, metadata.getCommitId());
+        assertEquals("https://github.com/fabric8io/example.git", metadata.getRemoteUrl());
+
+        // Same repository, so the already read metadata is used
+        assertSame(metadata, GitMetadata.forDirectory(session, moduleDir));
+        assertSame(metadata, GitMetadata.forProject(session, topLevel));
+    }
+
+    @Test
+    public void prefetch() throws Exception {
+        File repoDir = folder.newFolder("repo");
+        RevCommit commit;
+        try (Git git = Git.init().setDirectory(repoDir).call()) {
+            commit = git.commit().setMessage("Initial").call();
+        }
+        final MavenProject project = new MavenProject();
+        project.setFile(new File(repoDir, "pom.xml"));
+        new Expectations() {{
+            session.getTopLevelProject(); result = project;
+        }};
+
+        GitMetadata.prefetch(session, project);
+        GitMetadata metadata = GitMetadata.forProject(session, project);
+        assertEquals(commit.getName(), metadata.getCommitId());
+        assertNull(metadata.getRemoteUrl());
+    }
+
+    @Test
+    public void noRepository() throws Exception {
+        MavenProject project = new MavenProject();
+        project.setFile(new File(folder.newFolder("plain"), "pom.xml"));
+        assertNull(GitMetadata.forProject(null, project));
+    }
+}
@@ -11,6 +11,7 @@ import io.fabric8.maven.core.util.Configs;
 import io.fabric8.maven.enricher.api.BaseEnricher;
 import io.fabric8.maven.enricher.api.EnricherContext;
 import io.fabric8.maven.enricher.api.Kind;
+import io.fabric8.maven.enricher.api.VisitorEnricher;
 import io.fabric8.maven.enricher.api.util.InitContainerHandler;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -26,7 +27,7 @@ import java.util.Map;
  * This is opt-in so should not be added to default enrichers as it only works for
  * OpenShift.
  */
-public class AutoTLSEnricher extends BaseEnricher {
+public class AutoTLSEnricher extends BaseEnricher implements VisitorEnricher {
     static final String ENRICHER_NAME = "fmp-autotls";
     static final String AUTOTLS_ANNOTATION_KEY = "service.alpha.openshift.io/serving-cert-secret-name";
 
@@ -133,11 +134,18 @@ public class AutoTLSEnricher extends BaseEnricher {
 
     @Override
     public void adapt(KubernetesListBuilder builder) {
+        for (TypedVisitor<?> visitor : getAdaptVisitors()) {
+            builder.accept(visitor);
+        }
+    }
+
+    @Override
+    public List<TypedVisitor<?>> getAdaptVisitors() {
         if (!isOpenShiftMode()) {
-            return;
+            return Collections.emptyList();
         }
 
-        builder.accept(new TypedVisitor<PodTemplateSpecBuilder>() {
+        return Collections.<TypedVisitor<?>>singletonList(new TypedVisitor<PodTemplateSpecBuilder>() {
             @Override
             public void visit(PodTemplateSpecBuilder builder) {
                 initContainerHandler.appendInitContainer(builder, createInitContainer());
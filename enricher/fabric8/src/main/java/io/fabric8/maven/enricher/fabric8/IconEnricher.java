@@ -19,6 +19,7 @@ package io.fabric8.maven.enricher.fabric8;
 import io.fabric8.kubernetes.api.Annotations;
 import io.fabric8.maven.core.util.Configs;
 import io.fabric8.maven.core.util.MavenUtil;
+import io.fabric8.maven.core.util.ResourceGenerationCache;
 import io.fabric8.maven.enricher.api.BaseEnricher;
 import io.fabric8.maven.enricher.api.EnricherContext;
 import io.fabric8.maven.enricher.api.Kind;
@@ -30,12 +31,17 @@ import org.apache.maven.model.Scm;
 import org.apache.maven.project.MavenProject;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Properties;
 
 import static io.fabric8.maven.core.util.MavenUtil.hasClass;
 import static io.fabric8.maven.core.util.MavenUtil.hasPlugin;
@@ -51,10 +57,20 @@ public class IconEnricher extends BaseEnricher {
 
     private static String[] ICON_EXTENSIONS = new String[]{".svg", ".png", ".gif", ".jpg", ".jpeg"};
 
+    // Stored in the template work dir, so it's gone together with the copied icons
+    private static final String ICON_CACHE_FILE = ".icon-cache.properties";
+
+    // Must be a multiple of 3 so that the encoded chunks can be concatenated
+    private static final int ENCODE_CHUNK_SIZE = 3 * 8192;
+
     private File templateTempDir;
     private File appConfigDir;
     private String iconBranch;
 
+    // Icon URL resolved for this build, which is the same for every kind
+    private boolean iconUrlResolved;
+    private String iconUrl;
+
     // Available configuration keys
     private enum Config implements Configs.Key {
 
@@ -80,7 +96,10 @@ public class IconEnricher extends BaseEnricher {
     @Override
     public Map<String, String> getAnnotations(Kind kind) {
         if (kind.isController() || kind == Kind.SERVICE) {
-            String iconUrl = getIconUrl(extractIconRef());
+            if (!iconUrlResolved) {
+                iconUrl = getIconUrl(extractIconRef());
+                iconUrlResolved = true;
+            }
             if (iconUrl != null) {
                 log.info("Adding icon for %s", kind.toString().toLowerCase());
                 log.verbose("Icon URL: %s", iconUrl);
@@ -107,6 +126,12 @@ public class IconEnricher extends BaseEnricher {
         if (Strings.isNullOrBlank(answer)) {
             try {
                 if (templateTempDir != null) {
+                    String cacheKey = createIconCacheKey(iconRef);
+                    answer = lookupCachedIconUrl(cacheKey);
+                    if (answer != null) {
+                        log.verbose("Using icon from previous build");
+                        return answer;
+                    }
                     templateTempDir.mkdirs();
                     File iconFile = copyIconToFolder(iconRef, templateTempDir);
                     if (iconFile == null) {
@@ -123,6 +148,9 @@ public class IconEnricher extends BaseEnricher {
                     }
                     if (iconFile != null) {
                         answer = convertIconFileToURL(iconFile, iconRef);
+                        if (answer != null) {
+                            storeCachedIconUrl(iconRef, answer);
+                        }
                     }
                 }
             } catch (Exception e) {
@@ -252,18 +280,16 @@ public class IconEnricher extends BaseEnricher {
 
 
     private String convertIconFileToURL(File iconFile, String iconRef) throws IOException {
-        long length = iconFile.length();
-
-        int sizeK = Math.round(length / 1024);
-
-        byte[] bytes = Files.readBytes(iconFile);
-        byte[] encoded = Base64Encoder.encode(bytes);
+        // Size of the base64 encoded icon, calculated up front so that too large icons are not read at all
+        long base64Length = (iconFile.length() + 2) / 3 * 4;
 
-        int base64SizeK = Math.round(encoded.length / 1024);
+        long base64SizeK = base64Length / 1024;
 
         if (base64SizeK < Configs.asInt(getConfig(Config.maximumDataUrlSizeK))) {
             String mimeType = guessMediaType(iconFile);
-            return "data:" + mimeType + ";charset=UTF-8;base64," + new String(encoded);
+            StringBuilder ret = new StringBuilder("data:").append(mimeType).append(";charset=UTF-8;base64,");
+            encodeBase64(iconFile, ret);
+            return ret.toString();
         } else {
             File iconSourceFile = new File(appConfigDir, iconFile.getName());
             if (iconSourceFile.exists()) {
@@ -310,6 +336,93 @@ public class IconEnricher extends BaseEnricher {
         return null;
     }
 
+    // Base64 encode a file chunk by chunk
+    private void encodeBase64(File file, StringBuilder out) throws IOException {
+        byte[] buffer = new byte[ENCODE_CHUNK_SIZE];
+        try (InputStream is = new FileInputStream(file)) {
+            int length;
+            while ((length = readChunk(is, buffer)) > 0) {
+                byte[] chunk = length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+                out.append(new String(Base64Encoder.encode(chunk), StandardCharsets.US_ASCII));
+            }
+        }
+    }
+
+    // Fill the buffer completely unless the end of the stream is reached, as only the last chunk may be padded
+    private int readChunk(InputStream is, byte[] buffer) throws IOException {
+        int length = 0;
+        while (length < buffer.length) {
+            int read = is.read(buffer, length, buffer.length - length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
+        }
+        return length;
+    }
+
+    // ====================================================================================================
+    // Icon cache, which stores the icon URL of the last build together with a key over all inputs
+
+    private String createIconCacheKey(String iconRef) {
+        Scm scm = getProject().getScm();
+        File rootProjectFolder = getRootProjectFolder();
+        ResourceGenerationCache.KeyBuilder builder = new ResourceGenerationCache.KeyBuilder()
+            .add("iconRef", iconRef)
+            .add("maximumDataUrlSizeK", getConfig(Config.maximumDataUrlSizeK))
+            .add("urlPrefix", getConfig(Config.urlPrefix))
+            .add("branch", getConfig(Config.branch))
+            .add("scmUrl", scm != null ? scm.getUrl() : null)
+            .add("rootProjectFolder", rootProjectFolder != null ? rootProjectFolder.getAbsolutePath() : null)
+            .add("basedir", getProject().getBasedir().getAbsolutePath());
+        // Icons provided by the project and the ones already copied to the template directory
+        addIconFiles(builder, "sourceIcon.", appConfigDir);
+        addIconFiles(builder, "templateIcon.", templateTempDir);
+        return builder.build();
+    }
+
+    private void addIconFiles(ResourceGenerationCache.KeyBuilder builder, String prefix, File dir) {
+        for (String ext : ICON_EXTENSIONS) {
+            File file = new File(dir, "icon" + ext);
+            if (file.isFile()) {
+                builder.addFile(prefix + ext, file);
+            }
+        }
+    }
+
+    private String lookupCachedIconUrl(String key) {
+        File cacheFile = new File(templateTempDir, ICON_CACHE_FILE);
+        if (key != null && cacheFile.isFile()) {
+            Properties props = new Properties();
+            try (InputStream is = new FileInputStream(cacheFile)) {
+                props.load(is);
+                if (key.equals(props.getProperty("key"))) {
+                    return props.getProperty("url");
+                }
+            } catch (IOException e) {
+                log.verbose("Cannot read icon cache %s: %s", cacheFile, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private void storeCachedIconUrl(String iconRef, String url) {
+        // Calculated again as the icons in the template directory have changed when they were copied
+        String key = createIconCacheKey(iconRef);
+        if (key == null) {
+            return;
+        }
+        File cacheFile = new File(templateTempDir, ICON_CACHE_FILE);
+        Properties props = new Properties();
+        props.setProperty("key", key);
+        props.setProperty("url", url);
+        try (OutputStream os = new FileOutputStream(cacheFile)) {
+            props.store(os, "f8-icon cache");
+        } catch (IOException e) {
+            log.verbose("Cannot write icon cache %s: %s", cacheFile, e.getMessage());
+        }
+    }
+
     /**
      * Returns the root project folder
      */
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.enricher.fabric8;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import io.fabric8.kubernetes.api.Annotations;
+import io.fabric8.maven.core.config.ProcessorConfig;
+import io.fabric8.maven.enricher.api.EnricherContext;
+import io.fabric8.maven.enricher.api.Kind;
+import io.fabric8.utils.Base64Encoder;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+import org.apache.maven.model.Build;
+import org.apache.maven.project.MavenProject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JMockit.class)
+public class IconEnricherTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mocked
+    private EnricherContext context;
+
+    private MavenProject project;
+    private File iconFile;
+
+    @Before
+    public void setUp() throws IOException {
+        File baseDir = folder.newFolder("project");
+        project = new MavenProject();
+        project.setFile(new File(baseDir, "pom.xml"));
+        Build build = new Build();
+        build.setDirectory(new File(baseDir, "target").getAbsolutePath());
+        build.setOutputDirectory(new File(baseDir, "target/classes").getAbsolutePath());
+        build.setTestOutputDirectory(new File(baseDir, "target/test-classes").getAbsolutePath());
+        project.setBuild(build);
+        File sourceDir = new File(baseDir, "src/main/fabric8");
+        sourceDir.mkdirs();
+        iconFile = new File(sourceDir, "icon.png");
+    }
+
+    @Test
+    public void dataUrl() throws IOException {
+        byte[] icon = writeIcon(100 * 1024);
+        setupExpectations("maximumDataUrlSizeK", "1000");
+
+        IconEnricher enricher = new IconEnricher(context);
+        String url = getIconUrl(enricher, Kind.DEPLOYMENT);
+        assertEquals("data:image/png;charset=UTF-8;base64," + new String(Base64Encoder.encode(icon)), url);
+        // Same icon for all kinds
+        assertEquals(url, getIconUrl(enricher, Kind.SERVICE));
+    }
+
+    @Test
+    public void cachedAcrossBuilds() throws IOException {
+        writeIcon(500);
+        setupExpectations();
+
+        String url = getIconUrl(new IconEnricher(context), Kind.DEPLOYMENT);
+        assertTrue(url.startsWith("data:image/png"));
+        assertTrue(new File(project.getBasedir(), "target/fabric8/template-workdir/.icon-cache.properties").isFile());
+        assertEquals(url, getIconUrl(new IconEnricher(context), Kind.DEPLOYMENT));
+
+        // A changed icon must not be taken from the cache
+        byte[] changed = writeIcon(600);
+        assertEquals("data:image/png;charset=UTF-8;base64," + new String(Base64Encoder.encode(changed)),
+                     getIconUrl(new IconEnricher(context), Kind.DEPLOYMENT));
+    }
+
+    @Test
+    public void tooLargeForDataUrl() throws IOException {
+        writeIcon(4 * 1024);
+        setupExpectations();
+
+        String url = getIconUrl(new IconEnricher(context), Kind.DEPLOYMENT);
+        assertFalse(url != null && url.startsWith("data:"));
+    }
+
+    @Test
+    public void noIcon() {
+        setupExpectations();
+        assertNull(getIconUrl(new IconEnricher(context), Kind.DEPLOYMENT));
+    }
+
+    private String getIconUrl(IconEnricher enricher, Kind kind) {
+        Map<String, String> annotations = enricher.getAnnotations(kind);
+        return annotations != null ? annotations.get(Annotations.Builds.ICON_URL) : null;
+    }
+
+    private byte[] writeIcon(int size) throws IOException {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        try (FileOutputStream os = new FileOutputStream(iconFile)) {
+            os.write(data);
+        }
+        return data;
+    }
+
+    private void setupExpectations(String ... configParams) {
+        final TreeMap config = new TreeMap();
+        config.put("ref", "no-such-icon");
+        for (int i = 0; i < configParams.length; i += 2) {
+            config.put(configParams[i], configParams[i + 1]);
+        }
+        new Expectations() {{
+            context.getProject(); result = project;
+            context.getConfig(); result = new ProcessorConfig(null, null, Collections.singletonMap("f8-icon", config));
+        }};
+    }
+}
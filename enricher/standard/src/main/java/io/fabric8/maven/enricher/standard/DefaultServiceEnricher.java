@@ -22,7 +22,6 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import io.fabric8.ianaservicehelper.Helper;
 import io.fabric8.kubernetes.api.KubernetesHelper;
 import io.fabric8.kubernetes.api.builder.TypedVisitor;
 import io.fabric8.kubernetes.api.model.*;
@@ -371,12 +370,7 @@ public class DefaultServiceEnricher extends BaseEnricher {
         }
 
         try {
-            Set<String> serviceNames = Helper.serviceNames(port, serviceProtocol.toLowerCase());
-            if (serviceNames != null && !serviceNames.isEmpty()) {
-                return serviceNames.iterator().next();
-            } else {
-                return null;
-            }
+            return IANAServicePortNames.lookup(port, serviceProtocol.toLowerCase());
         } catch (IOException e) {
             log.warn("Cannot lookup port %d/%s in IANA database: %s", port, serviceProtocol.toLowerCase(), e.getMessage());
             return null;
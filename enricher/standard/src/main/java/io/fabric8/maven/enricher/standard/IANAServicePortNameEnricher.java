@@ -19,24 +19,39 @@ package io.fabric8.maven.enricher.standard;
 import io.fabric8.kubernetes.api.builder.TypedVisitor;
 import io.fabric8.kubernetes.api.model.ContainerPortBuilder;
 import io.fabric8.kubernetes.api.model.KubernetesListBuilder;
+import io.fabric8.maven.core.util.Configs;
 import io.fabric8.maven.enricher.api.BaseEnricher;
 import io.fabric8.maven.enricher.api.EnricherContext;
 
 import java.io.IOException;
-import java.util.Set;
-
-import static io.fabric8.ianaservicehelper.Helper.serviceNames;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Enrich container ports with names with names of IANA registered services, if not already present.
  */
 public class IANAServicePortNameEnricher extends BaseEnricher {
+
+    // Format of a single port name given in the configuration
+    private static final Pattern PORT_NAME_PATTERN = Pattern.compile("^(\\d+)(?:/(\\w+))?\\s*[=:]\\s*(\\S+)$");
+
+    private enum Config implements Configs.Key {
+        // Comma separated list of port names, which take precedence over the IANA registered names.
+        // Format of a single entry: <port>[/<protocol>]=<name>, e.g. "8081=admin,5000/udp=metrics"
+        names;
+
+        public String def() { return d; } protected String d;
+    }
+
     public IANAServicePortNameEnricher(EnricherContext buildContext) {
         super(buildContext, "fmp-ianaservice");
     }
 
     @Override
     public void addMissingResources(KubernetesListBuilder builder) {
+        final Map<String, String> configuredNames = parsePortNames(getConfig(Config.names));
         builder.accept(new TypedVisitor<ContainerPortBuilder>() {
             @Override
             public void visit(ContainerPortBuilder builder) {
@@ -45,19 +60,42 @@ public class IANAServicePortNameEnricher extends BaseEnricher {
                     if (protocol == null || protocol.isEmpty()) {
                         protocol = "tcp";
                     }
+                    int port = builder.getContainerPort();
+                    protocol = protocol.toLowerCase();
                     try {
-                        Set<String> sn = serviceNames(builder.getContainerPort(), protocol.toLowerCase());
-                        if (sn != null && !sn.isEmpty()) {
-                            String serviceName = sn.iterator().next();
-                            log.verbose("Adding port name %s for port %d", serviceName, builder.getContainerPort());
+                        String serviceName = configuredNames.isEmpty() ? null : configuredNames.get(port + "/" + protocol);
+                        if (serviceName == null) {
+                            serviceName = IANAServicePortNames.lookup(port, protocol);
+                        }
+                        if (serviceName != null) {
+                            log.verbose("Adding port name %s for port %d", serviceName, port);
                             builder.withName(serviceName);
                         }
                     } catch (IOException e) {
-                        log.warn("Failed to find service names for port %d/%s : %s", builder.getContainerPort(), protocol.toLowerCase(), e.getMessage());
+                        log.warn("Failed to find service names for port %d/%s : %s", port, protocol, e.getMessage());
                     }
                 }
             }
         });
     }
 
+    // Map from "port/protocol" to port name
+    private Map<String, String> parsePortNames(String names) {
+        Map<String, String> ret = new HashMap<>();
+        if (names != null) {
+            for (String entry : names.split("\\s*,\\s*")) {
+                if (entry.trim().isEmpty()) {
+                    continue;
+                }
+                Matcher matcher = PORT_NAME_PATTERN.matcher(entry.trim());
+                if (!matcher.matches()) {
+                    throw new IllegalArgumentException("Invalid port name specification " + entry +
+                                                       " (expected <port>[/<protocol>]=<name>)");
+                }
+                String protocol = matcher.group(2) != null ? matcher.group(2).toLowerCase() : "tcp";
+                ret.put(Integer.parseInt(matcher.group(1)) + "/" + protocol, matcher.group(3));
+            }
+        }
+        return ret;
+    }
 }
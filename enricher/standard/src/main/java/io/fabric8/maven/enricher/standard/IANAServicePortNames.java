@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package io.fabric8.maven.enricher.standard;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import io.fabric8.ianaservicehelper.Helper;
+
+/**
+ * Names of IANA registered services by port and protocol. The table for a protocol is created from the IANA
+ * registry once per JVM, on the first lookup for this protocol. It holds the ports with a registered service
+ * in a sorted array and their names in a parallel array, so that a lookup is a binary search which doesn't
+ * create any objects.
+ */
+class IANAServicePortNames {
+
+    private static final int MAX_PORT = 65535;
+
+    private static final ConcurrentMap<String, PortTable> TABLES = new ConcurrentHashMap<>();
+
+    private IANAServicePortNames() {
+    }
+
+    /**
+     * Lookup the name of the service registered for a port. If multiple services are registered for
+     * a port, the same name as returned first by {@link Helper#serviceNames(int, String)} is used.
+     *
+     * @param port port to lookup
+     * @param protocol protocol in lower case like "tcp" or "udp"
+     * @return name of the registered service or null if no service is registered for this port
+     * @throws IOException if the IANA registry cannot be read
+     */
+    static String lookup(int port, String protocol) throws IOException {
+        if (port < 0 || port > MAX_PORT) {
+            return null;
+        }
+        PortTable table = TABLES.get(protocol);
+        if (table == null) {
+            table = createTable(protocol);
+        }
+        return table.get(port);
+    }
+
+    private static synchronized PortTable createTable(String protocol) throws IOException {
+        PortTable table = TABLES.get(protocol);
+        if (table == null) {
+            char[] ports = new char[MAX_PORT + 1];
+            String[] names = new String[MAX_PORT + 1];
+            int size = 0;
+            for (int port = 0; port <= MAX_PORT; port++) {
+                Set<String> serviceNames = Helper.serviceNames(port, protocol);
+                if (serviceNames != null && !serviceNames.isEmpty()) {
+                    ports[size] = (char) port;
+                    names[size] = serviceNames.iterator().next().intern();
+                    size++;
+                }
+            }
+            table = new PortTable(Arrays.copyOf(ports, size), Arrays.copyOf(names, size));
+            TABLES.put(protocol, table);
+        }
+        return table;
+    }
+
+    // Ports are stored as chars, which are unsigned 16 bit values covering the whole port range
+    private static class PortTable {
+        private final char[] ports;
+        private final String[] names;
+
+        private PortTable(char[] ports, String[] names) {
+            this.ports = ports;
+            this.names = names;
+        }
+
+        private String get(int port) {
+            int idx = Arrays.binarySearch(ports, (char) port);
+            return idx >= 0 ? names[idx] : null;
+        }
+    }
+}
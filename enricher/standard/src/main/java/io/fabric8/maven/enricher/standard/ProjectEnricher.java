@@ -16,7 +16,9 @@
 
 package io.fabric8.maven.enricher.standard;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import io.fabric8.kubernetes.api.builder.TypedVisitor;
@@ -26,6 +28,7 @@ import io.fabric8.maven.core.util.MapUtil;
 import io.fabric8.maven.enricher.api.BaseEnricher;
 import io.fabric8.maven.enricher.api.EnricherContext;
 import io.fabric8.maven.enricher.api.Kind;
+import io.fabric8.maven.enricher.api.VisitorEnricher;
 import org.apache.maven.project.MavenProject;
 
 /**
@@ -43,7 +46,7 @@ import org.apache.maven.project.MavenProject;
  * @author roland
  * @since 01/04/16
  */
-public class ProjectEnricher extends BaseEnricher {
+public class ProjectEnricher extends BaseEnricher implements VisitorEnricher {
 
     public ProjectEnricher(EnricherContext buildContext) {
         super(buildContext, "fmp-project");
@@ -56,8 +59,15 @@ public class ProjectEnricher extends BaseEnricher {
 
     @Override
     public void adapt(KubernetesListBuilder builder) {
+        for (TypedVisitor<?> visitor : getAdaptVisitors()) {
+            builder.accept(visitor);
+        }
+    }
+
+    @Override
+    public List<TypedVisitor<?>> getAdaptVisitors() {
         // Add to all objects in the builder
-        builder.accept(new TypedVisitor<ObjectMetaBuilder>() {
+        return Collections.<TypedVisitor<?>>singletonList(new TypedVisitor<ObjectMetaBuilder>() {
             @Override
             public void visit(ObjectMetaBuilder element) {
                 Map<String, String> labels = element.getLabels();
@@ -28,11 +28,13 @@ import io.fabric8.kubernetes.api.model.VolumeMount;
 import io.fabric8.maven.core.util.Configs;
 import io.fabric8.maven.enricher.api.BaseEnricher;
 import io.fabric8.maven.enricher.api.EnricherContext;
+import io.fabric8.maven.enricher.api.VisitorEnricher;
 import io.fabric8.maven.enricher.api.util.InitContainerHandler;
 import io.fabric8.utils.Strings;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -43,7 +45,7 @@ import java.util.Set;
  * @author roland
  * @since 14/11/16
  */
-public class VolumePermissionEnricher extends BaseEnricher {
+public class VolumePermissionEnricher extends BaseEnricher implements VisitorEnricher {
 
     public static final String ENRICHER_NAME = "fmp-volume-permission";
     static final String VOLUME_STORAGE_CLASS_ANNOTATION = "volume.beta.kubernetes.io/storage-class";
@@ -64,8 +66,14 @@ public class VolumePermissionEnricher extends BaseEnricher {
 
     @Override
     public void adapt(KubernetesListBuilder builder) {
+        for (TypedVisitor<?> visitor : getAdaptVisitors()) {
+            builder.accept(visitor);
+        }
+    }
 
-        builder.accept(new TypedVisitor<PodTemplateSpecBuilder>() {
+    @Override
+    public List<TypedVisitor<?>> getAdaptVisitors() {
+        return Arrays.<TypedVisitor<?>>asList(new TypedVisitor<PodTemplateSpecBuilder>() {
             @Override
             public void visit(PodTemplateSpecBuilder builder) {
                 PodSpec podSpec = builder.buildSpec();
@@ -168,9 +176,9 @@ public class VolumePermissionEnricher extends BaseEnricher {
                 throw new IllegalArgumentException("No matching volume mount found for volume "+ name);
             }
 
-        });
+        },
 
-        builder.accept(new TypedVisitor<PersistentVolumeClaimBuilder>() {
+        new TypedVisitor<PersistentVolumeClaimBuilder>() {
             @Override
             public void visit(PersistentVolumeClaimBuilder pvcBuilder) {
                 // lets ensure we have a default storage class so that PVs will get dynamically created OOTB
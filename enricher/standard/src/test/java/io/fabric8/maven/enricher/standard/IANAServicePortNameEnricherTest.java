@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package io.fabric8.maven.enricher.standard;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+import io.fabric8.ianaservicehelper.Helper;
+import io.fabric8.kubernetes.api.model.ContainerPort;
+import io.fabric8.kubernetes.api.model.ContainerPortBuilder;
+import io.fabric8.kubernetes.api.model.KubernetesListBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.maven.core.config.ProcessorConfig;
+import io.fabric8.maven.enricher.api.EnricherContext;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(JMockit.class)
+public class IANAServicePortNameEnricherTest {
+
+    @Mocked
+    private EnricherContext context;
+
+    @Test
+    public void sameNamesAsRegistry() throws Exception {
+        for (String protocol : new String[] { "tcp", "udp" }) {
+            for (int port = 0; port < 10000; port++) {
+                Set<String> names = Helper.serviceNames(port, protocol);
+                String expected = names != null && !names.isEmpty() ? names.iterator().next() : null;
+                assertEquals(port + "/" + protocol, expected, IANAServicePortNames.lookup(port, protocol));
+            }
+        }
+        assertNull(IANAServicePortNames.lookup(-1, "tcp"));
+        assertNull(IANAServicePortNames.lookup(70000, "tcp"));
+        assertNull(IANAServicePortNames.lookup(80, "unknown"));
+    }
+
+    @Test
+    public void registeredNames() {
+        setupExpectations();
+        List<ContainerPort> ports = enrich(port(22, null), port(53, "UDP"), port(49151, "TCP"), named(80, "web"));
+        assertEquals("ssh", ports.get(0).getName());
+        assertEquals("domain", ports.get(1).getName());
+        assertNull(ports.get(2).getName());
+        assertEquals("web", ports.get(3).getName());
+    }
+
+    @Test
+    public void configuredNames() {
+        setupExpectations("names", "22=admin, 53/udp=dns,9999/TCP:custom");
+        List<ContainerPort> ports = enrich(port(22, null), port(53, "UDP"), port(53, "TCP"), port(9999, null));
+        assertEquals("admin", ports.get(0).getName());
+        assertEquals("dns", ports.get(1).getName());
+        assertEquals("domain", ports.get(2).getName());
+        assertEquals("custom", ports.get(3).getName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidConfiguredNames() {
+        setupExpectations("names", "http=80");
+        enrich(port(80, null));
+    }
+
+    private List<ContainerPort> enrich(ContainerPort ... ports) {
+        KubernetesListBuilder builder = new KubernetesListBuilder()
+            .addToPodItems(new PodBuilder()
+                               .withNewSpec()
+                                 .addNewContainer()
+                                   .withName("app")
+                                   .withPorts(ports)
+                                 .endContainer()
+                               .endSpec()
+                               .build());
+        new IANAServicePortNameEnricher(context).addMissingResources(builder);
+        return ((Pod) builder.build().getItems().get(0))
+            .getSpec().getContainers().get(0).getPorts();
+    }
+
+    private ContainerPort port(int port, String protocol) {
+        return new ContainerPortBuilder().withContainerPort(port).withProtocol(protocol).build();
+    }
+
+    private ContainerPort named(int port, String name) {
+        return new ContainerPortBuilder().withContainerPort(port).withName(name).build();
+    }
+
+    private void setupExpectations(String ... configParams) {
+        final TreeMap config = new TreeMap();
+        for (int i = 0; i < configParams.length; i += 2) {
+            config.put(configParams[i], configParams[i + 1]);
+        }
+        new Expectations() {{
+            context.getConfig();
+            result = new ProcessorConfig(null, null, Collections.singletonMap("fmp-ianaservice", config));
+        }};
+    }
+}
@@ -21,6 +21,7 @@ import io.fabric8.maven.core.config.PlatformMode;
 import io.fabric8.maven.core.config.ProcessorConfig;
 import io.fabric8.maven.core.service.ArtifactResolverService;
 import io.fabric8.maven.core.util.GoalFinder;
+import io.fabric8.maven.core.util.ProcessorTimings;
 import io.fabric8.maven.docker.util.Logger;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -42,6 +43,8 @@ public class GeneratorContext {
     private boolean useProjectClasspath;
     private boolean prePackagePhase;
     private ArtifactResolverService artifactResolver;
+    private ProcessorTimings timings = ProcessorTimings.DISABLED;
+    private GeneratorFacts facts;
 
     private GeneratorContext() {
     }
@@ -82,6 +85,20 @@ public class GeneratorContext {
         return artifactResolver;
     }
 
+    public ProcessorTimings getTimings() {
+        return timings;
+    }
+
+    /**
+     * Facts about the project shared by all generators using this context
+     */
+    public synchronized GeneratorFacts getFacts() {
+        if (facts == null) {
+            facts = new GeneratorFacts(project);
+        }
+        return facts;
+    }
+
     /**
      * Returns true if we are in watch mode
      */
@@ -170,6 +187,11 @@ public class GeneratorContext {
             return this;
         }
 
+        public Builder timings(ProcessorTimings timings) {
+            ctx.timings = timings;
+            return this;
+        }
+
         public GeneratorContext build() {
             return ctx;
         }
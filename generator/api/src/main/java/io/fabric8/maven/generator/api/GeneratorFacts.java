@@ -0,0 +1,116 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package io.fabric8.maven.generator.api;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import io.fabric8.maven.core.util.MavenUtil;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Facts about a project which are needed by several generators, like the used plugins, the
+ * detected fat jar or the main class. Each fact is determined only once per generator run, even
+ * when generators ask for it concurrently while checking whether they are applicable.
+ *
+ * Generators can store their own facts with {@link #get(String, Callable)}. Facts which depend
+ * on the generator's configuration must include this configuration in the key.
+ */
+public class GeneratorFacts {
+
+    private final MavenProject project;
+    private final ConcurrentMap<String, FutureTask<?>> facts = new ConcurrentHashMap<>();
+
+    public GeneratorFacts(MavenProject project) {
+        this.project = project;
+    }
+
+    public String getPackaging() {
+        return project.getPackaging();
+    }
+
+    /**
+     * Check whether the project uses a plugin
+     *
+     * @param plugin plugin given as "groupId:artifactId"
+     * @return true if the plugin is configured for the project
+     */
+    public boolean hasPlugin(final String plugin) throws MojoExecutionException {
+        return get("plugin:" + plugin, new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return MavenUtil.hasPlugin(project, plugin);
+            }
+        });
+    }
+
+    /**
+     * Check whether the project has a non-test dependency on any artifact of a group
+     */
+    public boolean hasDependencyOnAnyArtifactOfGroup(final String groupId) throws MojoExecutionException {
+        return get("dependencyGroup:" + groupId, new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return MavenUtil.hasDependencyOnAnyArtifactOfGroup(project, groupId);
+            }
+        });
+    }
+
+    /**
+     * Get a fact, which is detected on the first call for the given key. Concurrent callers wait
+     * for the first detection to finish. A failed detection is reported to every caller.
+     *
+     * @param key unique key of the fact
+     * @param detector used to determine the fact if it is not known yet, may return null
+     * @return the fact as returned by the detector
+     * @throws MojoExecutionException if the detector failed
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Callable<T> detector) throws MojoExecutionException {
+        FutureTask<?> task = facts.get(key);
+        if (task == null) {
+            FutureTask<T> newTask = new FutureTask<>(detector);
+            task = facts.putIfAbsent(key, newTask);
+            if (task == null) {
+                task = newTask;
+                newTask.run();
+            }
+        }
+        try {
+            return (T) task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while detecting " + key, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof MojoExecutionException) {
+                throw (MojoExecutionException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new MojoExecutionException("Cannot detect " + key + ": " + cause.getMessage(), cause);
+        }
+    }
+}
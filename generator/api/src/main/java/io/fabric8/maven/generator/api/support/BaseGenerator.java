@@ -27,6 +27,7 @@ import io.fabric8.maven.generator.api.FromSelector;
 import io.fabric8.maven.generator.api.Generator;
 import io.fabric8.maven.generator.api.GeneratorConfig;
 import io.fabric8.maven.generator.api.GeneratorContext;
+import io.fabric8.maven.generator.api.GeneratorFacts;
 import io.fabric8.openshift.api.model.BuildStrategy;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.utils.StringUtils;
@@ -92,6 +93,10 @@ abstract public class BaseGenerator implements Generator {
         return context;
     }
 
+    protected GeneratorFacts getFacts() {
+        return context.getFacts();
+    }
+
     protected String getConfig(Configs.Key key) {
         return config.get(key);
     }
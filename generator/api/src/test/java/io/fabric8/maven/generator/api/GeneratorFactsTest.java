@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package io.fabric8.maven.generator.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(JMockit.class)
+public class GeneratorFactsTest {
+
+    @Mocked
+    MavenProject project;
+
+    @Mocked
+    Plugin plugin;
+
+    @Test
+    public void detectedOnceForConcurrentCallers() throws Exception {
+        final GeneratorFacts facts = new GeneratorFacts(project);
+        final AtomicInteger detections = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        return facts.get("mainClass", new Callable<String>() {
+                            @Override
+                            public String call() throws Exception {
+                                detections.incrementAndGet();
+                                Thread.sleep(50);
+                                return "com.example.Main";
+                            }
+                        });
+                    }
+                }));
+            }
+            for (Future<String> result : results) {
+                assertEquals("com.example.Main", result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, detections.get());
+    }
+
+    @Test
+    public void nullFactsAreRemembered() throws MojoExecutionException {
+        GeneratorFacts facts = new GeneratorFacts(project);
+        final AtomicInteger detections = new AtomicInteger();
+        Callable<Object> detector = new Callable<Object>() {
+            @Override
+            public Object call() {
+                detections.incrementAndGet();
+                return null;
+            }
+        };
+        assertNull(facts.get("fatJar", detector));
+        assertNull(facts.get("fatJar", detector));
+        assertEquals(1, detections.get());
+    }
+
+    @Test
+    public void failedDetection() {
+        GeneratorFacts facts = new GeneratorFacts(project);
+        Callable<Object> detector = new Callable<Object>() {
+            @Override
+            public Object call() throws MojoExecutionException {
+                throw new MojoExecutionException("Cannot examine file");
+            }
+        };
+        for (int i = 0; i < 2; i++) {
+            try {
+                facts.get("fatJar", detector);
+                fail("Exception expected");
+            } catch (MojoExecutionException exp) {
+                assertEquals("Cannot examine file", exp.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void plugins() throws MojoExecutionException {
+        new Expectations() {{
+            project.getPlugin("org.apache.maven.plugins:maven-war-plugin"); result = plugin; times = 1;
+            project.getPlugin("org.apache.karaf.tooling:karaf-maven-plugin"); result = null; times = 1;
+        }};
+        GeneratorFacts facts = new GeneratorFacts(project);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(facts.hasPlugin("org.apache.maven.plugins:maven-war-plugin"));
+            assertFalse(facts.hasPlugin("org.apache.karaf.tooling:karaf-maven-plugin"));
+        }
+    }
+}
@@ -17,7 +17,6 @@
 package io.fabric8.maven.generator.javaexec;
 
 import io.fabric8.maven.core.util.Configs;
-import io.fabric8.maven.core.util.MavenUtil;
 import io.fabric8.maven.docker.config.AssemblyConfiguration;
 import io.fabric8.maven.docker.config.BuildImageConfiguration;
 import io.fabric8.maven.docker.config.ImageConfiguration;
@@ -34,6 +33,7 @@ import org.codehaus.plexus.util.StringUtils;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.Callable;
 
 /**
  * @author roland
@@ -52,6 +52,9 @@ public class JavaExecGenerator extends BaseGenerator {
         "org.apache.maven.plugins:maven-shade-plugin"
     };
 
+    private static final String FAT_JAR_FACT = "java-exec.fatJar";
+    private static final String MAIN_CLASS_FACT = "java-exec.mainClass";
+
     private final FatJarDetector fatJarDetector;
     private final MainClassDetector mainClassDetector;
 
@@ -64,6 +67,7 @@ public class JavaExecGenerator extends BaseGenerator {
         fatJarDetector = new FatJarDetector(getProject().getBuild().getDirectory());
         mainClassDetector = new MainClassDetector(getConfig(Config.mainClass),
                                                   new File(getProject().getBuild().getOutputDirectory()),
+                                                  new File(getProject().getBuild().getDirectory(), "fabric8/main-classes.properties"),
                                                   context.getLogger());
     }
 
@@ -99,7 +103,7 @@ public class JavaExecGenerator extends BaseGenerator {
             }
             // Check for the existing of plugins indicating a plain java exec app
             for (String plugin : JAVA_EXEC_MAVEN_PLUGINS) {
-                if (MavenUtil.hasPlugin(getProject(), plugin)) {
+                if (getFacts().hasPlugin(plugin)) {
                     return true;
                 }
             }
@@ -142,7 +146,7 @@ public class JavaExecGenerator extends BaseGenerator {
         if (!isFatJar()) {
             String mainClass = getConfig(Config.mainClass);
             if (mainClass == null) {
-                mainClass = mainClassDetector.getMainClass();
+                mainClass = detectMainClass();
                 if (mainClass == null) {
                     if (!prePackagePhase) {
                         throw new MojoExecutionException("Cannot extract main class to startup");
@@ -228,7 +232,23 @@ public class JavaExecGenerator extends BaseGenerator {
     }
 
     public FatJarDetector.Result detectFatJar() throws MojoExecutionException {
-        return fatJarDetector.scan();
+        // Shared by all generators as they all look into the same build directory
+        return getFacts().get(FAT_JAR_FACT, new Callable<FatJarDetector.Result>() {
+            @Override
+            public FatJarDetector.Result call() throws MojoExecutionException {
+                return fatJarDetector.scan();
+            }
+        });
+    }
+
+    // Only called when no main class is configured, so the detected class is the same for all generators
+    private String detectMainClass() throws MojoExecutionException {
+        return getFacts().get(MAIN_CLASS_FACT, new Callable<String>() {
+            @Override
+            public String call() throws MojoExecutionException {
+                return mainClassDetector.getMainClass();
+            }
+        });
     }
 
     protected List<String> extractPorts() {
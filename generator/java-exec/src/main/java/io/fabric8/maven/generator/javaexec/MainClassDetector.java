@@ -32,11 +32,13 @@ class MainClassDetector {
 
     private String mainClass = null;
     private final File classesDir;
+    private final File indexFile;
     private final Logger log;
 
-    MainClassDetector(String mainClass, File classesDir, Logger log) {
+    MainClassDetector(String mainClass, File classesDir, File indexFile, Logger log) {
         this.mainClass = mainClass;
         this.classesDir = classesDir;
+        this.indexFile = indexFile;
         this.log = log;
     }
 
@@ -47,7 +49,7 @@ class MainClassDetector {
 
         // Try to detect a single main class from target/classes
         try {
-            List<String> foundMainClasses = ClassUtil.findMainClasses(classesDir);
+            List<String> foundMainClasses = ClassUtil.findMainClasses(classesDir, indexFile);
             if (foundMainClasses.size() == 0) {
                 return mainClass = null;
             } else if (foundMainClasses.size() == 1) {
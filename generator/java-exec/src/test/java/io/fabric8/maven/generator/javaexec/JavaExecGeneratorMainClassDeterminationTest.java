@@ -100,7 +100,7 @@ public class JavaExecGeneratorMainClassDeterminationTest {
     public static class MockClassUtils extends MockUp<ClassUtil> {
 
         @Mock
-        public static List<String> findMainClasses(File rootDir) throws IOException {
+        public static List<String> findMainClasses(File rootDir, File indexFile) throws IOException {
             return Collections.singletonList("the.detected.MainClass");
         }
 
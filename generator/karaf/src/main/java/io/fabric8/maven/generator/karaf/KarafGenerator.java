@@ -19,7 +19,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import io.fabric8.maven.core.util.Configs;
-import io.fabric8.maven.core.util.MavenUtil;
 import io.fabric8.maven.docker.config.AssemblyConfiguration;
 import io.fabric8.maven.docker.config.BuildImageConfiguration;
 import io.fabric8.maven.docker.config.ImageConfiguration;
@@ -27,6 +26,7 @@ import io.fabric8.maven.generator.api.support.BaseGenerator;
 import io.fabric8.maven.generator.api.FromSelector;
 import io.fabric8.maven.generator.api.GeneratorContext;
 import io.fabric8.utils.Strings;
+import org.apache.maven.plugin.MojoExecutionException;
 
 public class KarafGenerator extends BaseGenerator {
 
@@ -64,9 +64,9 @@ public class KarafGenerator extends BaseGenerator {
     }
 
     @Override
-    public boolean isApplicable(List<ImageConfiguration> configs) {
+    public boolean isApplicable(List<ImageConfiguration> configs) throws MojoExecutionException {
         return shouldAddImageConfiguration(configs) &&
-               MavenUtil.hasPlugin(getProject(), "org.apache.karaf.tooling:karaf-maven-plugin");
+               getFacts().hasPlugin("org.apache.karaf.tooling:karaf-maven-plugin");
     }
 
     protected List<String> extractPorts() {
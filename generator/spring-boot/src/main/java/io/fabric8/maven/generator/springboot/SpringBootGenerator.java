@@ -34,7 +34,6 @@ import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
 import io.fabric8.maven.core.util.Configs;
-import io.fabric8.maven.core.util.MavenUtil;
 import io.fabric8.maven.core.util.SpringBootProperties;
 import io.fabric8.maven.core.util.SpringBootUtil;
 import io.fabric8.maven.docker.config.ImageConfiguration;
@@ -73,9 +72,9 @@ public class SpringBootGenerator extends JavaExecGenerator {
     }
 
     @Override
-    public boolean isApplicable(List<ImageConfiguration> configs) {
+    public boolean isApplicable(List<ImageConfiguration> configs) throws MojoExecutionException {
         return shouldAddImageConfiguration(configs)
-               && MavenUtil.hasPlugin(getProject(), SPRING_BOOT_MAVEN_PLUGIN_GA);
+               && getFacts().hasPlugin(SPRING_BOOT_MAVEN_PLUGIN_GA);
     }
 
     @Override
@@ -38,6 +38,7 @@ import java.util.*;
 
 import io.fabric8.maven.docker.config.ImageConfiguration;
 import io.fabric8.maven.generator.api.GeneratorContext;
+import io.fabric8.maven.generator.api.GeneratorFacts;
 import io.fabric8.maven.generator.springboot.SpringBootGenerator;
 import mockit.Expectations;
 import mockit.Mocked;
@@ -67,7 +68,7 @@ public class SpringBootGeneratorTest {
     private Build build;
 
     @Test
-    public void notApplicable() throws IOException {
+    public void notApplicable() throws IOException, MojoExecutionException {
         SpringBootGenerator generator = new SpringBootGenerator(createGeneratorContext());
         assertFalse(generator.isApplicable((List<ImageConfiguration>) Collections.EMPTY_LIST));
     }
@@ -88,6 +89,7 @@ public class SpringBootGeneratorTest {
     private GeneratorContext createGeneratorContext() throws IOException {
         new Expectations() {{
             context.getProject(); result = project;
+            context.getFacts(); result = new GeneratorFacts(project); minTimes = 0;
             project.getBuild(); result = build;
             String tempDir = Files.createTempDirectory("springboot-test-project").toFile().getAbsolutePath();
 
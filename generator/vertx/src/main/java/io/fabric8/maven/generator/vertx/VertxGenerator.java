@@ -16,7 +16,6 @@
 
 package io.fabric8.maven.generator.vertx;
 
-import io.fabric8.maven.core.util.MavenUtil;
 import io.fabric8.maven.docker.config.ImageConfiguration;
 import io.fabric8.maven.generator.api.GeneratorContext;
 import io.fabric8.maven.generator.javaexec.JavaExecGenerator;
@@ -50,8 +49,8 @@ public class VertxGenerator extends JavaExecGenerator {
   @Override
   public boolean isApplicable(List<ImageConfiguration> configs) throws MojoExecutionException {
     return shouldAddImageConfiguration(configs)
-        && (MavenUtil.hasPlugin(getProject(), VERTX_MAVEN_PLUGIN_GA)
-        || MavenUtil.hasDependencyOnAnyArtifactOfGroup(getProject(), VERTX_GROUPID));
+        && (getFacts().hasPlugin(VERTX_MAVEN_PLUGIN_GA)
+        || getFacts().hasDependencyOnAnyArtifactOfGroup(VERTX_GROUPID));
   }
 
   @Override
@@ -19,18 +19,19 @@ package io.fabric8.maven.generator.webapp;
 import io.fabric8.maven.core.config.OpenShiftBuildStrategy;
 import io.fabric8.maven.core.config.PlatformMode;
 import io.fabric8.maven.core.util.Configs;
-import io.fabric8.maven.core.util.MavenUtil;
 import io.fabric8.maven.docker.config.AssemblyConfiguration;
 import io.fabric8.maven.docker.config.BuildImageConfiguration;
 import io.fabric8.maven.docker.config.ImageConfiguration;
 import io.fabric8.maven.generator.api.GeneratorContext;
 import io.fabric8.maven.generator.api.support.BaseGenerator;
 import io.fabric8.maven.generator.webapp.handler.CustomAppServerHandler;
+import org.apache.maven.plugin.MojoExecutionException;
 
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 
 /**
@@ -66,13 +67,13 @@ public class WebAppGenerator extends BaseGenerator {
     }
 
     @Override
-    public boolean isApplicable(List<ImageConfiguration> configs) {
+    public boolean isApplicable(List<ImageConfiguration> configs) throws MojoExecutionException {
         return shouldAddImageConfiguration(configs) &&
-               MavenUtil.hasPlugin(getProject(), "org.apache.maven.plugins:maven-war-plugin");
+               getFacts().hasPlugin("org.apache.maven.plugins:maven-war-plugin");
     }
 
     @Override
-    public List<ImageConfiguration> customize(List<ImageConfiguration> configs, boolean prePackagePhase) {
+    public List<ImageConfiguration> customize(List<ImageConfiguration> configs, boolean prePackagePhase) throws MojoExecutionException {
         if (getContext().getMode() == PlatformMode.openshift &&
             getContext().getStrategy() == OpenShiftBuildStrategy.s2i) {
             throw new IllegalArgumentException("S2I not yet supported for the webapp-generator. Use -Dfabric8.mode=kubernetes or " +
@@ -105,13 +106,19 @@ public class WebAppGenerator extends BaseGenerator {
         return configs;
     }
 
-    private AppServerHandler getAppServerHandler(GeneratorContext context) {
+    private AppServerHandler getAppServerHandler(final GeneratorContext context) throws MojoExecutionException {
         String from = super.getFromAsConfigured();
         if (from != null) {
             // If a base image is provided use this exclusively and dont do a custom lookup
             return createCustomAppServerHandler(from);
         } else {
-            return new AppServerDetector(context.getProject()).detect(getConfig(Config.server));
+            final String server = getConfig(Config.server);
+            return getFacts().get("webapp.appServer:" + server, new Callable<AppServerHandler>() {
+                @Override
+                public AppServerHandler call() {
+                    return new AppServerDetector(context.getProject()).detect(server);
+                }
+            });
         }
     }
 
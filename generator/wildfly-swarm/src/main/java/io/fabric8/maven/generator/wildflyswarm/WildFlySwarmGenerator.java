@@ -16,7 +16,6 @@
  */
 package io.fabric8.maven.generator.wildflyswarm;
 
-import io.fabric8.maven.core.util.MavenUtil;
 import io.fabric8.maven.docker.config.ImageConfiguration;
 import io.fabric8.maven.generator.api.GeneratorContext;
 import io.fabric8.maven.generator.javaexec.JavaExecGenerator;
@@ -36,8 +35,8 @@ public class WildFlySwarmGenerator extends JavaExecGenerator {
     }
 
     @Override
-    public boolean isApplicable(List<ImageConfiguration> configs) {
-        return shouldAddImageConfiguration(configs) && MavenUtil.hasPlugin(getProject(), "org.wildfly.swarm:wildfly-swarm-plugin");
+    public boolean isApplicable(List<ImageConfiguration> configs) throws MojoExecutionException {
+        return shouldAddImageConfiguration(configs) && getFacts().hasPlugin("org.wildfly.swarm:wildfly-swarm-plugin");
     }
 
     @Override
@@ -18,16 +18,20 @@ package io.fabric8.maven.plugin.enricher;
 
 import java.util.*;
 
+import io.fabric8.kubernetes.api.builder.TypedVisitor;
 import io.fabric8.kubernetes.api.model.KubernetesListBuilder;
 import io.fabric8.maven.core.config.MetaDataConfig;
 import io.fabric8.maven.core.config.ProcessorConfig;
 import io.fabric8.maven.core.config.ResourceConfig;
-import io.fabric8.maven.core.util.ClassUtil;
 import io.fabric8.maven.core.util.PluginServiceFactory;
+import io.fabric8.maven.core.util.ProcessorTimings;
+import io.fabric8.maven.core.util.ProjectClassLoaders;
 import io.fabric8.maven.docker.util.Logger;
+import io.fabric8.maven.enricher.api.AbstractLiveEnricher;
 import io.fabric8.maven.enricher.api.Enricher;
 import io.fabric8.maven.enricher.api.EnricherContext;
 import io.fabric8.maven.enricher.api.Kind;
+import io.fabric8.maven.enricher.api.VisitorEnricher;
 import io.fabric8.utils.Function;
 
 import static io.fabric8.maven.plugin.enricher.EnricherManager.Extractor.*;
@@ -51,19 +55,29 @@ public class EnricherManager {
 
     private Logger log;
 
-    // List of visitors used to enrich with labels
-    private final MetadataVisitor<?>[] metaDataVisitors;
-    private final SelectorVisitor<?>[] selectorVisitorCreators;
+    // Instrumentation of the enrichers
+    private final ProcessorTimings timings;
+
+    // Visitor used to enrich with labels, annotations and selectors in a single pass
+    private final FusedVisitor metadataVisitor;
+
+    // Labels, annotations and selectors extracted from the enrichers, cached during an enrichment
+    private Map<String, Map<String, String>> extractCache;
+
+    // Enrichers to use per processor config, as the same config is consulted for every visited item
+    private final Map<ProcessorConfig, List<Enricher>> filteredEnrichers = new IdentityHashMap<>();
 
     public EnricherManager(ResourceConfig resourceConfig, EnricherContext enricherContext) {
         PluginServiceFactory<EnricherContext> pluginFactory = new PluginServiceFactory<>(enricherContext);
 
         if (enricherContext.isUseProjectClasspath()) {
-            pluginFactory.addAdditionalClassLoader(ClassUtil.createProjectClassLoader(enricherContext.getProject(), enricherContext.getLog()));
+            pluginFactory.addAdditionalClassLoader(ProjectClassLoaders.forProject(enricherContext.getProject()).getProjectClassLoader(enricherContext.getLog()));
         }
 
         this.log = enricherContext.getLog();
+        this.timings = enricherContext.getTimings();
         this.defaultEnricherConfig = enricherContext.getConfig();
+        defaultEnricherConfig.compile();
 
         this.enrichers = pluginFactory.createServiceObjects("META-INF/fabric8-enricher-default",
                                                             "META-INF/fabric8/enricher-default",
@@ -78,9 +92,9 @@ public class EnricherManager {
             annotationConfig = null;
         }
 
-        logEnrichers(filterEnrichers(defaultEnricherConfig, enrichers));
+        logEnrichers(filterEnrichers(defaultEnricherConfig));
 
-        metaDataVisitors = new MetadataVisitor[] {
+        MetadataVisitor<?>[] metaDataVisitors = new MetadataVisitor[] {
             new MetadataVisitor.DeploymentBuilderVisitor(resourceConfig, this),
             new MetadataVisitor.ReplicaSet(resourceConfig, this),
             new MetadataVisitor.ReplicationControllerBuilderVisitor(resourceConfig, this),
@@ -91,7 +105,7 @@ public class EnricherManager {
             new MetadataVisitor.JobBuilderVisitor(resourceConfig, this),
         };
 
-        selectorVisitorCreators = new SelectorVisitor[] {
+        SelectorVisitor<?>[] selectorVisitors = new SelectorVisitor[] {
             new SelectorVisitor.DeploymentSpecBuilderVisitor(this),
             new SelectorVisitor.ReplicaSetSpecBuilderVisitor(this),
             new SelectorVisitor.ReplicationControllerSpecBuilderVisitor(this),
@@ -100,6 +114,35 @@ public class EnricherManager {
             new SelectorVisitor.StatefulSetSpecBuilderVisitor(this),
             new SelectorVisitor.JobSpecBuilderVisitor(this)
         };
+
+        metadataVisitor = new FusedVisitor();
+        for (MetadataVisitor<?> visitor : metaDataVisitors) {
+            metadataVisitor.add(null, visitor);
+        }
+        for (SelectorVisitor<?> visitor : selectorVisitors) {
+            metadataVisitor.add(null, visitor);
+        }
+    }
+
+    /**
+     * Get the enrichers which query the cluster when used with the given config, so that their
+     * results depend on more than the project itself.
+     *
+     * @param config enricher config to check
+     * @return names of the enrichers in online mode, empty if there is none
+     */
+    public List<String> getOnlineEnrichers(ProcessorConfig config) {
+        List<String> ret = new ArrayList<>();
+        for (Enricher enricher : filterEnrichers(config)) {
+            if (enricher instanceof AbstractLiveEnricher && ((AbstractLiveEnricher) enricher).isOnline()) {
+                ret.add(enricher.getName());
+            }
+        }
+        return ret;
+    }
+
+    public List<String> getOnlineEnrichers() {
+        return getOnlineEnrichers(defaultEnricherConfig);
     }
 
     public void createDefaultResources(final KubernetesListBuilder builder) {
@@ -108,7 +151,7 @@ public class EnricherManager {
 
     public void createDefaultResources(ProcessorConfig enricherConfig, final KubernetesListBuilder builder) {
         // Add default resources
-        loop(enricherConfig, new Function<Enricher, Void>() {
+        loop(enricherConfig, "addMissingResources", new Function<Enricher, Void>() {
             @Override
             public Void apply(Enricher enricher) {
                 enricher.addMissingResources(builder);
@@ -122,11 +165,8 @@ public class EnricherManager {
     }
 
     public void enrich(ProcessorConfig config, KubernetesListBuilder builder) {
-        // Enrich labels
-        enrichLabels(config, builder);
-
-        // Add missing selectors
-        addMissingSelectors(config, builder);
+        // Enrich labels and annotations and add missing selectors
+        enrichMetadata(config, builder);
 
         // Final customization step
         adapt(config, builder);
@@ -144,44 +184,62 @@ public class EnricherManager {
     }
 
     /**
-     * Enrich the given list with labels.
-     *
-     * @param builder the build to enrich with labels
-     */
-    private void enrichLabels(ProcessorConfig config, KubernetesListBuilder builder) {
-        visit(config, builder, metaDataVisitors);
-    }
-
-    /**
-     * Add selector when missing to services and replication controller / replica sets
+     * Enrich the given list with labels and annotations and add selectors when missing to services
+     * and replication controller / replica sets. Both operate on different parts of a resource so
+     * that they can be applied in a single traversal.
      *
      * @param config processor config to use
-     * @param builder builder to add selectors to.
+     * @param builder the build to enrich
      */
-    private void addMissingSelectors(ProcessorConfig config, KubernetesListBuilder builder) {
+    private void enrichMetadata(ProcessorConfig config, KubernetesListBuilder builder) {
+        MetadataVisitor.setProcessorConfig(config);
         SelectorVisitor.setProcessorConfig(config);
+        extractCache = new HashMap<>();
         try {
-            for (SelectorVisitor<?> visitor : selectorVisitorCreators) {
-                builder.accept(visitor);
-            }
+            builder.accept(metadataVisitor);
         } finally {
+            MetadataVisitor.clearProcessorConfig();
             SelectorVisitor.clearProcessorConfig();
+            extractCache = null;
         }
     }
 
     /**
-     * Allow enricher to do customizations on their own at the end of the enrichment
+     * Allow enricher to do customizations on their own at the end of the enrichment. The visitors of
+     * subsequent {@link VisitorEnricher}s are combined so that they need only one traversal.
      *
      * @param builder builder to customize
      */
     private void adapt(final ProcessorConfig enricherConfig, final KubernetesListBuilder builder) {
-        loop(enricherConfig, new Function<Enricher, Void>() {
-            @Override
-            public Void apply(Enricher enricher) {
+        // Visitors are called per item, so only their wall time is accumulated
+        Map<String, Long> visitorTimings = new LinkedHashMap<>();
+        FusedVisitor fusedVisitor = new FusedVisitor(visitorTimings);
+        for (Enricher enricher : filterEnrichers(enricherConfig)) {
+            if (enricher instanceof VisitorEnricher) {
+                for (TypedVisitor<?> visitor : ((VisitorEnricher) enricher).getAdaptVisitors()) {
+                    fusedVisitor.add(enricher.getName(), visitor);
+                }
+            } else {
+                // Keep the order of the enrichers
+                fusedVisitor = applyFusedVisitor(builder, fusedVisitor, visitorTimings);
+                ProcessorTimings.Sample sample = timings.start();
                 enricher.adapt(builder);
-                return null;
+                logTiming(enricher.getName(), "adapt", timings.stop("enricher", enricher.getName(), "adapt", sample));
             }
-        });
+        }
+        applyFusedVisitor(builder, fusedVisitor, visitorTimings);
+        for (Map.Entry<String, Long> entry : visitorTimings.entrySet()) {
+            timings.record("enricher", entry.getKey(), "adapt", entry.getValue());
+            logTiming(entry.getKey(), "adapt", entry.getValue());
+        }
+    }
+
+    private FusedVisitor applyFusedVisitor(KubernetesListBuilder builder, FusedVisitor visitor, Map<String, Long> timings) {
+        if (visitor.isEmpty()) {
+            return visitor;
+        }
+        builder.accept(visitor);
+        return new FusedVisitor(timings);
     }
 
     // =============================================================================================
@@ -205,43 +263,75 @@ public class EnricherManager {
     }
 
 
-    private List<Enricher> filterEnrichers(ProcessorConfig config, List<Enricher> enrichers) {
-        return config.prepareProcessors(enrichers, "enricher");
+    private List<Enricher> filterEnrichers(ProcessorConfig config) {
+        List<Enricher> ret = filteredEnrichers.get(config);
+        if (ret == null) {
+            ret = config.prepareProcessors(enrichers, "enricher");
+            filteredEnrichers.put(config, ret);
+        }
+        return ret;
     }
 
-    private void loop(ProcessorConfig config, Function<Enricher, Void> function) {
-        for (Enricher enricher : filterEnrichers(config,enrichers)) {
+    private void loop(ProcessorConfig config, String phase, Function<Enricher, Void> function) {
+        for (Enricher enricher : filterEnrichers(config)) {
+            ProcessorTimings.Sample sample = timings.start();
             function.apply(enricher);
+            logTiming(enricher.getName(), phase, timings.stop("enricher", enricher.getName(), phase, sample));
         }
     }
 
     private Map<String, String> extract(ProcessorConfig config, Extractor extractor, Kind kind) {
+        String cacheKey = extractor.name() + "/" + kind.name();
+        if (extractCache != null && extractCache.containsKey(cacheKey)) {
+            return extractCache.get(cacheKey);
+        }
         Map <String, String> ret = new HashMap<>();
-        for (Enricher enricher : filterEnrichers(config, enrichers)) {
+        for (Enricher enricher : filterEnrichers(config)) {
+            ProcessorTimings.Sample sample = timings.start();
             putAllIfNotNull(ret, extractor.extract(enricher, kind));
+            timings.stop("enricher", enricher.getName(), extractor.getPhase(), sample);
+        }
+        if (extractCache != null) {
+            ret = Collections.unmodifiableMap(ret);
+            extractCache.put(cacheKey, ret);
         }
         return ret;
     }
 
+    private void logTiming(String name, String phase, long nanos) {
+        log.verbose("Enricher %s (%s): %d ms", name, phase, nanos / 1000000);
+    }
+
 
     // ========================================================================================================
     // Simple extractors
     enum Extractor {
-        LABEL_EXTRACTOR {
+        LABEL_EXTRACTOR("labels") {
             public Map<String, String> extract(Enricher enricher, Kind kind) {
                 return enricher.getLabels(kind);
             }
         },
-        ANNOTATION_EXTRACTOR {
+        ANNOTATION_EXTRACTOR("annotations") {
             public Map<String, String> extract(Enricher enricher, Kind kind) {
                 return enricher.getAnnotations(kind);
             }
         },
-        SELECTOR_EXTRACTOR {
+        SELECTOR_EXTRACTOR("selector") {
             public Map<String, String> extract(Enricher enricher, Kind kind) {
                 return enricher.getSelector(kind);
             }
         };
+
+        private final String phase;
+
+        Extractor(String phase) {
+            this.phase = phase;
+        }
+
+        String getPhase() {
+            return phase;
+        }
+
         abstract Map<String, String> extract(Enricher enricher, Kind kind);
     }
 
@@ -251,15 +341,4 @@ public class EnricherManager {
             ret.putAll(toPut);
         }
     }
-
-    private void visit(ProcessorConfig config, KubernetesListBuilder builder, MetadataVisitor<?>[] visitors) {
-        MetadataVisitor.setProcessorConfig(config);
-        try {
-            for (MetadataVisitor<?> visitor : visitors) {
-                builder.accept(visitor);
-            }
-        } finally {
-            MetadataVisitor.clearProcessorConfig();
-        }
-    }
 }
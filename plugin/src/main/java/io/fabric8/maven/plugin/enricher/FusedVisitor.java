@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+
+package io.fabric8.maven.plugin.enricher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.fabric8.kubernetes.api.builder.TypedVisitor;
+import io.fabric8.kubernetes.api.builder.Visitor;
+
+/**
+ * Visitor which combines multiple typed visitors so that they can be applied
+ * with a single traversal of a builder tree. Each visited builder is dispatched
+ * to all registered visitors whose type matches, in the order of registration.
+ *
+ * Optionally the time spent in the visitors is accumulated per owner.
+ */
+class FusedVisitor implements Visitor<Object> {
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    // Matching entries per visited class, resolved lazily
+    private final Map<Class<?>, List<Entry>> dispatchTable = new HashMap<>();
+
+    private final Map<String, Long> timings;
+
+    FusedVisitor() {
+        this(null);
+    }
+
+    /**
+     * @param timings map where the nanoseconds spent per owner are accumulated, can be null
+     */
+    FusedVisitor(Map<String, Long> timings) {
+        this.timings = timings;
+    }
+
+    /**
+     * Add a visitor
+     *
+     * @param owner name of the owner of the visitor for timing, can be null
+     * @param visitor visitor to add
+     */
+    void add(String owner, TypedVisitor<?> visitor) {
+        entries.add(new Entry(owner, visitor, visitor.getType()));
+        dispatchTable.clear();
+    }
+
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    @Override
+    public void visit(Object item) {
+        for (Entry entry : getEntries(item.getClass())) {
+            if (timings != null && entry.owner != null) {
+                long start = System.nanoTime();
+                entry.visit(item);
+                addTiming(entry.owner, System.nanoTime() - start);
+            } else {
+                entry.visit(item);
+            }
+        }
+    }
+
+    private List<Entry> getEntries(Class<?> clazz) {
+        List<Entry> ret = dispatchTable.get(clazz);
+        if (ret == null) {
+            ret = new ArrayList<>();
+            for (Entry entry : entries) {
+                if (entry.type.isAssignableFrom(clazz)) {
+                    ret.add(entry);
+                }
+            }
+            dispatchTable.put(clazz, ret);
+        }
+        return ret;
+    }
+
+    private void addTiming(String owner, long nanos) {
+        Long current = timings.get(owner);
+        timings.put(owner, current != null ? current + nanos : nanos);
+    }
+
+    private static class Entry {
+        private final String owner;
+        private final Visitor visitor;
+        private final Class<?> type;
+
+        private Entry(String owner, Visitor visitor, Class<?> type) {
+            this.owner = owner;
+            this.visitor = visitor;
+            this.type = type;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void visit(Object item) {
+            visitor.visit(item);
+        }
+    }
+}
@@ -17,11 +17,19 @@
 package io.fabric8.maven.plugin.generator;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import io.fabric8.maven.core.config.ProcessorConfig;
-import io.fabric8.maven.core.util.ClassUtil;
 import io.fabric8.maven.core.util.PluginServiceFactory;
+import io.fabric8.maven.core.util.ProcessorTimings;
+import io.fabric8.maven.core.util.ProjectClassLoaders;
 import io.fabric8.maven.docker.util.Logger;
 import io.fabric8.maven.generator.api.Generator;
 import io.fabric8.maven.generator.api.GeneratorContext;
@@ -43,7 +51,7 @@ public class GeneratorManager {
 
         PluginServiceFactory<GeneratorContext> pluginFactory =
             genCtx.isUseProjectClasspath() ?
-            new PluginServiceFactory<GeneratorContext>(genCtx, ClassUtil.createProjectClassLoader(genCtx.getProject(), genCtx.getLogger())) :
+            new PluginServiceFactory<GeneratorContext>(genCtx, ProjectClassLoaders.forProject(genCtx.getProject()).getProjectClassLoader(genCtx.getLogger())) :
             new PluginServiceFactory<GeneratorContext>(genCtx);
 
         List<Generator> generators =
@@ -51,17 +59,88 @@ public class GeneratorManager {
                                                "META-INF/fabric8/fabric8-generator-default",
                                                "META-INF/fabric8/generator",
                                                "META-INF/fabric8-generator");
-        ProcessorConfig config = genCtx.getConfig();
+        ProcessorConfig config = genCtx.getConfig().compile();
         Logger log = genCtx.getLogger();
+        ProcessorTimings timings = genCtx.getTimings();
         List<Generator> usableGenerators = config.prepareProcessors(generators, "generator");
+        Map<Generator, Future<Boolean>> applicable = checkApplicable(usableGenerators, imageConfigs, timings);
+        boolean modified = false;
         log.verbose("Generators:");
         for (Generator generator : usableGenerators) {
             log.verbose(" - %s",generator.getName());
-            if (generator.isApplicable(ret)) {
+            if (isApplicable(generator, ret, modified ? null : applicable.get(generator), timings)) {
                 log.info("Running generator %s", generator.getName());
+                ProcessorTimings.Sample sample = timings.start();
                 ret = generator.customize(ret, prePackagePhase);
+                timings.stop("generator", generator.getName(), "customize", sample);
+                modified = true;
             }
         }
         return ret;
     }
+
+    // Check all generators concurrently against the initial image configurations. The checks share
+    // the facts of the generator context, so that e.g. the build directory is scanned only once.
+    private static Map<Generator, Future<Boolean>> checkApplicable(List<Generator> generators,
+                                                                   List<ImageConfiguration> imageConfigs,
+                                                                   final ProcessorTimings timings) {
+        Map<Generator, Future<Boolean>> ret = new HashMap<>();
+        if (generators.size() < 2) {
+            return ret;
+        }
+        // Taken before any generator runs, as customizing generators change the given list
+        final List<ImageConfiguration> initialConfigs = new ArrayList<>(imageConfigs);
+        ExecutorService executor =
+            Executors.newFixedThreadPool(Math.min(generators.size(), Runtime.getRuntime().availableProcessors()));
+        try {
+            for (final Generator generator : generators) {
+                ret.put(generator, executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        // Every generator gets its own copy as the list is not thread safe
+                        List<ImageConfiguration> configs = new ArrayList<>(initialConfigs);
+                        ProcessorTimings.Sample sample = timings.start();
+                        boolean applicable = generator.isApplicable(configs);
+                        timings.stop("generator", generator.getName(), "isApplicable", sample);
+                        return applicable;
+                    }
+                }));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return ret;
+    }
+
+    // Use the result of the concurrent check if given. Once a generator has changed the image configurations,
+    // no concurrent check is given and the generator is checked again against the current configurations.
+    private static boolean isApplicable(Generator generator, List<ImageConfiguration> configs,
+                                        Future<Boolean> concurrentCheck, ProcessorTimings timings)
+        throws MojoExecutionException {
+        if (concurrentCheck != null) {
+            return getCheckResult(generator, concurrentCheck);
+        }
+        ProcessorTimings.Sample sample = timings.start();
+        boolean applicable = generator.isApplicable(configs);
+        timings.stop("generator", generator.getName(), "isApplicable", sample);
+        return applicable;
+    }
+
+    private static boolean getCheckResult(Generator generator, Future<Boolean> check) throws MojoExecutionException {
+        try {
+            return check.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while checking generator " + generator.getName(), e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof MojoExecutionException) {
+                throw (MojoExecutionException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new MojoExecutionException("Cannot check generator " + generator.getName() + ": " + cause, cause);
+        }
+    }
 }
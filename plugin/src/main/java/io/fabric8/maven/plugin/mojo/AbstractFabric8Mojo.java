@@ -20,6 +20,7 @@ import io.fabric8.kubernetes.api.KubernetesHelper;
 import io.fabric8.kubernetes.api.ServiceNames;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.maven.core.util.GoalFinder;
+import io.fabric8.maven.core.util.ProjectClassLoaders;
 import io.fabric8.maven.docker.util.AnsiLogger;
 import io.fabric8.maven.docker.util.Logger;
 import io.fabric8.openshift.client.OpenShiftClient;
@@ -71,7 +72,11 @@ public abstract class AbstractFabric8Mojo extends AbstractMojo {
             return;
         }
         log = createLogger(" ");
-        executeInternal();
+        try {
+            executeInternal();
+        } finally {
+            ProjectClassLoaders.release(project);
+        }
     }
 
     public abstract void executeInternal() throws MojoExecutionException, MojoFailureException;
@@ -51,6 +51,14 @@ public abstract class AbstractResourceMojo extends AbstractFabric8Mojo {
      */
     @Parameter(property = "fabric8.resourceType")
     private ResourceFileType resourceFileType = yaml;
+
+    /**
+     * Write the items of the generated YAML manifests as separate YAML documents
+     * instead of a single list object
+     */
+    @Parameter(property = "fabric8.resource.multiDocument", defaultValue = "false")
+    private boolean multiDocument;
+
     @Component
     private MavenProjectHelper projectHelper;
 
@@ -75,30 +83,46 @@ public abstract class AbstractResourceMojo extends AbstractFabric8Mojo {
         // write kubernetes.yml / openshift.yml
         File resourceFileBase = new File(this.targetDir, classifier.getValue());
 
-        File file = writeResourcesIndividualAndComposite(resources, resourceFileBase, this.resourceFileType, log);
+        File file = writeResourcesIndividualAndComposite(resources, resourceFileBase, this.resourceFileType, multiDocument, log);
 
         // Attach it to the Maven reactor so that it will also get deployed
-        projectHelper.attachArtifact(project, this.resourceFileType.getArtifactType(), classifier.getValue(), file);
+        attachResource(this.resourceFileType.getArtifactType(), classifier.getValue(), file);
 
         // TODO: Remove the following block when devops and other apps used by gofabric8 are migrated
         // to fmp-v3. See also https://github.com/fabric8io/fabric8-maven-plugin/issues/167
         if (this.resourceFileType.equals(yaml)) {
             // lets generate JSON too to aid migration from version 2.x to 3.x for packaging templates
-            file = writeResource(resourceFileBase, resources, json);
+            file = writeResource(resourceFileBase, resources, json, false);
 
             // Attach it to the Maven reactor so that it will also get deployed
-            projectHelper.attachArtifact(project, json.getArtifactType(), classifier.getValue(), file);
+            attachResource(json.getArtifactType(), classifier.getValue(), file);
         }
     }
 
+    /**
+     * Attach a generated resource file to the project
+     *
+     * @param type artifact type
+     * @param classifier artifact classifier
+     * @param file file to attach
+     */
+    protected void attachResource(String type, String classifier, File file) {
+        projectHelper.attachArtifact(project, type, classifier, file);
+    }
+
     public static File writeResourcesIndividualAndComposite(KubernetesList resources, File resourceFileBase, ResourceFileType resourceFileType, Logger log) throws MojoExecutionException {
+        return writeResourcesIndividualAndComposite(resources, resourceFileBase, resourceFileType, false, log);
+    }
+
+    public static File writeResourcesIndividualAndComposite(KubernetesList resources, File resourceFileBase, ResourceFileType resourceFileType,
+                                                            boolean multiDocument, Logger log) throws MojoExecutionException {
         Object entity = resources;
         // if the list contains a single Template lets unwrap it
         Template template = getSingletonTemplate(resources);
         if (template != null) {
             entity = template;
         }
-        File file = writeResource(resourceFileBase, entity, resourceFileType);
+        File file = writeResource(resourceFileBase, entity, resourceFileType, multiDocument);
 
         // write separate files, one for each resource item
         writeIndividualResources(resources, resourceFileBase, resourceFileType, log);
@@ -114,13 +138,14 @@ public abstract class AbstractResourceMojo extends AbstractFabric8Mojo {
             }
             String itemFile = KubernetesResourceUtil.getNameWithSuffix(name, item.getKind());
             File itemTarget = new File(targetDir, itemFile);
-            writeResource(itemTarget, item, resourceFileType);
+            writeResource(itemTarget, item, resourceFileType, false);
         }
     }
 
-    private static File writeResource(File resourceFileBase, Object entity, ResourceFileType resourceFileType) throws MojoExecutionException {
+    private static File writeResource(File resourceFileBase, Object entity, ResourceFileType resourceFileType,
+                                      boolean multiDocument) throws MojoExecutionException {
         try {
-            return KubernetesResourceUtil.writeResource(entity, resourceFileBase, resourceFileType);
+            return KubernetesResourceUtil.writeResource(entity, resourceFileBase, resourceFileType, multiDocument);
         } catch (IOException e) {
             throw new MojoExecutionException("Failed to write resource to " + resourceFileBase + ". " + e, e);
         }
@@ -24,7 +24,7 @@ import io.fabric8.kubernetes.api.model.KubernetesList;
 import io.fabric8.kubernetes.api.model.KubernetesListBuilder;
 import io.fabric8.kubernetes.api.model.KubernetesResource;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
-import io.fabric8.maven.core.util.ClassUtil;
+import io.fabric8.maven.core.util.ProjectClassLoaders;
 import io.fabric8.maven.core.util.ResourceClassifier;
 import io.fabric8.openshift.api.model.Template;
 import io.fabric8.openshift.api.model.TemplateBuilder;
@@ -363,7 +363,7 @@ public class AppCatalogMojo extends AbstractResourceMojo {
 
     protected List<URL> findResourcesOnClassPath(String resourcePath) throws MojoExecutionException {
         try {
-            ClassLoader classLoader = ClassUtil.createProjectClassLoader(project, log);
+            ClassLoader classLoader = ProjectClassLoaders.forProject(project).getProjectClassLoader(log);
             List<URL> resourceList = new ArrayList<>();
             Enumeration<URL> resources = classLoader.getResources(resourcePath);
             while (resources.hasMoreElements()) {
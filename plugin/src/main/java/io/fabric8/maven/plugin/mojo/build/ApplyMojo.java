@@ -21,18 +21,16 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Future;
 
-import io.fabric8.kubernetes.api.Annotations;
 import io.fabric8.kubernetes.api.Controller;
 import io.fabric8.kubernetes.api.KubernetesHelper;
-import io.fabric8.kubernetes.api.model.DoneableService;
 import io.fabric8.kubernetes.api.model.HasMetadata;
-import io.fabric8.kubernetes.api.model.Pod;
-import io.fabric8.kubernetes.api.model.ReplicationController;
 import io.fabric8.kubernetes.api.model.Service;
 import io.fabric8.kubernetes.api.model.ServicePort;
 import io.fabric8.kubernetes.api.model.ServiceSpec;
@@ -47,9 +45,10 @@ import io.fabric8.kubernetes.api.model.extensions.IngressRule;
 import io.fabric8.kubernetes.api.model.extensions.IngressSpec;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClientException;
-import io.fabric8.kubernetes.client.dsl.Resource;
 import io.fabric8.maven.core.access.ClusterAccess;
+import io.fabric8.maven.core.service.ApplyService;
 import io.fabric8.maven.core.service.Fabric8ServiceHub;
+import io.fabric8.maven.core.service.ServiceUrlResolver;
 import io.fabric8.maven.core.util.KubernetesResourceUtil;
 import io.fabric8.maven.docker.util.Logger;
 import io.fabric8.maven.plugin.mojo.AbstractFabric8Mojo;
@@ -75,9 +74,6 @@ import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.apache.maven.project.MavenProject;
 
 import static io.fabric8.kubernetes.api.KubernetesHelper.createIntOrString;
-import static io.fabric8.kubernetes.api.KubernetesHelper.getLabels;
-import static io.fabric8.kubernetes.api.KubernetesHelper.getName;
-import static io.fabric8.kubernetes.api.KubernetesHelper.getOrCreateAnnotations;
 
 /**
  * Base class for goals which deploy the generated artifacts into the Kubernetes cluster
@@ -199,6 +195,22 @@ public class ApplyMojo extends AbstractFabric8Mojo {
     @Parameter(property = "fabric8.serviceUrl.waitSeconds", defaultValue = "5")
     protected long serviceUrlWaitTimeSeconds;
 
+    /**
+     * Number of entities which are applied concurrently. Entities are applied in dependency
+     * order (namespaces, configuration, services, controllers) and only entities of the same
+     * order are applied in parallel.
+     */
+    @Parameter(property = "fabric8.deploy.applyThreads", defaultValue = "1")
+    protected int applyThreads;
+
+    /**
+     * Skip entities which are unchanged compared to the objects already running in the cluster.
+     * Live objects are fetched with a single list call per kind and compared via the spec hash
+     * annotation added by <code>fabric8:resource</code>. Ignored in recreate mode.
+     */
+    @Parameter(property = "fabric8.deploy.skipUnchanged", defaultValue = "false")
+    protected boolean skipUnchanged;
+
     /**
      * The S2I binary builder BuildConfig name suffix appended to the image name to avoid
      * clashing with the underlying BuildConfig for the Jenkins pipeline
@@ -347,6 +359,9 @@ public class ApplyMojo extends AbstractFabric8Mojo {
                 }
             }
 
+            // Parse the manifest while setting up the connection to the cluster
+            Future<Set<HasMetadata>> loadedEntities = KubernetesResourceUtil.loadResourcesInBackground(manifest);
+
             String clusterKind = "Kubernetes";
             if (KubernetesHelper.isOpenShift(kubernetes)) {
                 clusterKind = "OpenShift";
@@ -378,7 +393,7 @@ public class ApplyMojo extends AbstractFabric8Mojo {
             controller.applyNamespace(namespace);
             controller.setNamespace(namespace);
 
-            Set<HasMetadata> entities = KubernetesResourceUtil.loadResources(manifest);
+            Set<HasMetadata> entities = KubernetesResourceUtil.getLoadedResources(loadedEntities);
 
             if (createExternalUrls) {
                 if (controller.getOpenShiftClientOrNull() != null) {
@@ -399,55 +414,24 @@ public class ApplyMojo extends AbstractFabric8Mojo {
     }
 
     protected void applyEntities(Controller controller, KubernetesClient kubernetes, String namespace, String fileName, Set<HasMetadata> entities) throws Exception {
-        // Apply all items
-        for (HasMetadata entity : entities) {
-            if (entity instanceof Pod) {
-                Pod pod = (Pod) entity;
-                controller.applyPod(pod, fileName);
-            } else if (entity instanceof Service) {
-                Service service = (Service) entity;
-                controller.applyService(service, fileName);
-            } else if (entity instanceof ReplicationController) {
-                ReplicationController replicationController = (ReplicationController) entity;
-                controller.applyReplicationController(replicationController, fileName);
-            } else if (entity != null) {
-                controller.apply(entity, fileName);
-            }
+        // Apply all items, dependency tier by dependency tier
+        ApplyService applyService = new ApplyService(controller, log, applyThreads);
+        if (skipUnchanged && !recreate) {
+            applyService.enableSkipUnchanged(kubernetes);
         }
+        applyService.apply(entities, fileName);
 
         String command = clusterAccess.isOpenShift(log) ? "oc" : "kubectl";
         log.info("[[B]]HINT:[[B]] Use the command `%s get pods -w` to watch your pods start up", command);
 
         Logger serviceLogger = createExternalProcessLogger("[[G]][SVC][[G]] ");
-        long serviceUrlWaitTimeSeconds = this.serviceUrlWaitTimeSeconds;
-        for (HasMetadata entity : entities) {
-            if (entity instanceof Service) {
-                Service service = (Service) entity;
-                String name = getName(service);
-                Resource<Service, DoneableService> serviceResource = kubernetes.services().inNamespace(namespace).withName(name);
-                String url = null;
-                // lets wait a little while until there is a service URL in case the exposecontroller is running slow
-                for (int i = 0; i < serviceUrlWaitTimeSeconds; i++) {
-                    if (i > 0) {
-                        Thread.sleep(1000);
-                    }
-                    Service s = serviceResource.get();
-                    if (s != null) {
-                        url = getExternalServiceURL(s);
-                        if (Strings.isNotBlank(url)) {
-                            break;
-                        }
-                    }
-                    if (!isExposeService(service)) {
-                        break;
-                    }
-                }
-
-                // lets not wait for other services
-                serviceUrlWaitTimeSeconds = 1;
-                if (Strings.isNotBlank(url) && url.startsWith("http")) {
-                    serviceLogger.info("" + name + ": " + url);
-                }
+        // lets wait a little while until there is a service URL in case the exposecontroller is running slow
+        Map<String, String> serviceUrls =
+            new ServiceUrlResolver(kubernetes, log).resolveExposeUrls(namespace, entities, serviceUrlWaitTimeSeconds);
+        for (Map.Entry<String, String> entry : serviceUrls.entrySet()) {
+            String url = entry.getValue();
+            if (url.startsWith("http")) {
+                serviceLogger.info("%s: %s", entry.getKey(), url);
             }
         }
     }
@@ -463,13 +447,20 @@ public class ApplyMojo extends AbstractFabric8Mojo {
         return getFabric8ServiceHubBuilder(controller).build();
     }
 
+    /**
+     * @deprecated not called when applying any more, use {@link ServiceUrlResolver#getExposeUrl(Service)}
+     */
+    @Deprecated
     protected String getExternalServiceURL(Service service) {
-        return getOrCreateAnnotations(service).get(Annotations.Service.EXPOSE_URL);
+        return ServiceUrlResolver.getExposeUrl(service);
     }
 
+    /**
+     * @deprecated not called when applying any more, use {@link ServiceUrlResolver#isExposeService(Service)}
+     */
+    @Deprecated
     protected boolean isExposeService(Service service) {
-        String expose = getLabels(service).get("expose");
-        return expose != null && expose.toLowerCase().equals("true");
+        return ServiceUrlResolver.isExposeService(service);
     }
 
     public boolean isRollingUpgrades() {
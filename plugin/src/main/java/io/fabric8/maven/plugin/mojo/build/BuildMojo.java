@@ -19,6 +19,7 @@ package io.fabric8.maven.plugin.mojo.build;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
@@ -31,11 +32,15 @@ import io.fabric8.maven.core.config.PlatformMode;
 import io.fabric8.maven.core.config.ProcessorConfig;
 import io.fabric8.maven.core.config.ResourceConfig;
 import io.fabric8.maven.core.service.BuildService;
+import io.fabric8.maven.core.service.Fabric8ServiceException;
 import io.fabric8.maven.core.service.Fabric8ServiceHub;
+import io.fabric8.maven.core.service.openshift.BuildResourceCache;
 import io.fabric8.maven.core.util.GoalFinder;
 import io.fabric8.maven.core.util.Gofabric8Util;
 import io.fabric8.maven.core.util.OpenShiftDependencyResources;
+import io.fabric8.maven.core.util.ProcessorTimings;
 import io.fabric8.maven.core.util.ProfileUtil;
+import io.fabric8.maven.core.util.ProjectClassLoaders;
 import io.fabric8.maven.docker.access.DockerAccessException;
 import io.fabric8.maven.docker.config.ImageConfiguration;
 import io.fabric8.maven.docker.service.DockerAccessFactory;
@@ -131,12 +136,41 @@ public class BuildMojo extends io.fabric8.maven.docker.BuildMojo {
     @Parameter(property = "fabric8.s2i.buildNameSuffix", defaultValue = "-s2i")
     private String s2iBuildNameSuffix;
 
+    /**
+     * Number of images which are built concurrently for an OpenShift build. The build archives
+     * are created one after the other, the uploads and the OpenShift builds run in parallel.
+     */
+    @Parameter(property = "fabric8.build.threads", defaultValue = "1")
+    private int buildThreads;
+
+    /**
+     * Skip an OpenShift build when the build archive has the same content as the one of the
+     * last successful build and its image is still available in the image stream.
+     */
+    @Parameter(property = "fabric8.build.skipUnchanged", defaultValue = "false")
+    private boolean skipUnchangedBuilds;
+
+    /**
+     * Compression level for uploading the build archive of an OpenShift binary build. The archive is gzip
+     * compressed while it is uploaded, from 1 (fastest) to 9 (best compression). 0 uploads the archive
+     * uncompressed.
+     */
+    @Parameter(property = "fabric8.build.compression", defaultValue = "0")
+    private int uploadCompressionLevel;
+
     /**
      * Should we use the project's compile-time classpath to scan for additional enrichers/generators?
      */
     @Parameter(property = "fabric8.useProjectClasspath", defaultValue = "false")
     private boolean useProjectClasspath = false;
 
+    /**
+     * Record wall time, CPU time and allocated memory per enricher and generator
+     * in target/fabric8/timings.json
+     */
+    @Parameter(property = "fabric8.timings", defaultValue = "false")
+    private boolean timings;
+
     /**
      * How to recreate the build config and/or image stream created by the build.
      * Only in effect when <code>mode == openshift</code> or mode is <code>auto</code>
@@ -182,6 +216,9 @@ public class BuildMojo extends io.fabric8.maven.docker.BuildMojo {
     // Mode which is resolved, also when 'auto' is set
     private PlatformMode platformMode;
 
+    // Images collected for a parallel build, null when building sequentially
+    private List<ImageConfiguration> imagesToBuild;
+
 
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
@@ -190,7 +227,12 @@ public class BuildMojo extends io.fabric8.maven.docker.BuildMojo {
         }
         clusterAccess = new ClusterAccess(namespace);
         // Platform mode is already used in executeInternal()
-        super.execute();
+        try {
+            super.execute();
+        } finally {
+            ProcessorTimings.forProject(project, timings).writeReport(log);
+            ProjectClassLoaders.release(project);
+        }
     }
 
     @Override
@@ -219,11 +261,31 @@ public class BuildMojo extends io.fabric8.maven.docker.BuildMojo {
                 .mavenProject(project)
                 .build();
 
-        super.executeInternal(hub);
+        if (isParallelBuild()) {
+            // Only collect the images to build, the builds are started together afterwards
+            imagesToBuild = new ArrayList<>();
+            super.executeInternal(hub);
+            buildConcurrently(imagesToBuild);
+            imagesToBuild = null;
+        } else {
+            super.executeInternal(hub);
+        }
 
         fabric8ServiceHub.getBuildService().postProcess(getBuildServiceConfig());
     }
 
+    private boolean isParallelBuild() {
+        return buildThreads > 1 && platformMode == PlatformMode.openshift && getResolvedImages().size() > 1;
+    }
+
+    private void buildConcurrently(List<ImageConfiguration> imageConfigs) throws MojoExecutionException {
+        try {
+            fabric8ServiceHub.getBuildService().build(imageConfigs, buildThreads);
+        } catch (Fabric8ServiceException ex) {
+            throw new MojoExecutionException("Failed to execute the build", ex);
+        }
+    }
+
     @Override
     protected DockerAccessFactory.DockerAccessContext getDockerAccessContext() {
         return new DockerAccessFactory.DockerAccessContext.Builder(super.getDockerAccessContext())
@@ -239,6 +301,10 @@ public class BuildMojo extends io.fabric8.maven.docker.BuildMojo {
             // TODO need to refactor d-m-p to avoid this call
             EnvUtil.storeTimestamp(this.getBuildTimestampFile(), this.getBuildTimestamp());
 
+            if (imagesToBuild != null) {
+                imagesToBuild.add(imageConfig);
+                return;
+            }
             fabric8ServiceHub.getBuildService().build(imageConfig);
 
         } catch (Exception ex) {
@@ -254,6 +320,9 @@ public class BuildMojo extends io.fabric8.maven.docker.BuildMojo {
                 .openshiftBuildStrategy(buildStrategy)
                 .s2iBuildNameSuffix(s2iBuildNameSuffix)
                 .buildDirectory(project.getBuild().getDirectory())
+                .skipUnchangedBuilds(skipUnchangedBuilds)
+                .uploadCompressionLevel(uploadCompressionLevel)
+                .buildResourceCache(BuildResourceCache.forSession(session))
                 .attacher(new BuildService.BuildServiceConfig.Attacher() {
                     @Override
                     public void attach(String classifier, File destFile) {
@@ -318,6 +387,7 @@ public class BuildMojo extends io.fabric8.maven.docker.BuildMojo {
                 .strategy(buildStrategy)
                 .useProjectClasspath(useProjectClasspath)
                 .artifactResolver(getFabric8ServiceHub().getArtifactResolverService())
+                .timings(ProcessorTimings.forProject(project, timings))
                 .build();
     }
 
@@ -353,6 +423,7 @@ public class BuildMojo extends io.fabric8.maven.docker.BuildMojo {
                 .log(log)
                 .openshiftDependencyResources(new OpenShiftDependencyResources(log))
                 .useProjectClasspath(useProjectClasspath)
+                .timings(ProcessorTimings.forProject(project, timings))
                 .build();
     }
 
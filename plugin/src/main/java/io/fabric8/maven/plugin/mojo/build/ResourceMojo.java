@@ -41,6 +41,7 @@ import io.fabric8.maven.docker.util.EnvUtil;
 import io.fabric8.maven.docker.util.ImageNameFormatter;
 import io.fabric8.maven.docker.util.Logger;
 import io.fabric8.maven.enricher.api.EnricherContext;
+import io.fabric8.maven.enricher.api.util.GitMetadata;
 import io.fabric8.maven.enricher.api.util.InitContainerHandler;
 import io.fabric8.maven.enricher.standard.VolumePermissionEnricher;
 import io.fabric8.maven.generator.api.GeneratorContext;
@@ -49,6 +50,9 @@ import io.fabric8.maven.plugin.enricher.EnricherManager;
 import io.fabric8.maven.plugin.generator.GeneratorManager;
 import io.fabric8.openshift.api.model.DeploymentConfig;
 import io.fabric8.openshift.api.model.Template;
+import io.fabric8.utils.Files;
+import io.fabric8.utils.Systems;
+import org.apache.maven.artifact.Artifact;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.*;
@@ -92,6 +96,13 @@ public class ResourceMojo extends AbstractResourceMojo {
     @Parameter(property = "fabric8.useProjectClasspath", defaultValue = "false")
     private boolean useProjectClasspath = false;
 
+    /**
+     * Record wall time, CPU time and allocated memory per enricher and generator
+     * in target/fabric8/timings.json
+     */
+    @Parameter(property = "fabric8.timings", defaultValue = "false")
+    private boolean timings;
+
     /**
      * The fabric8 working directory
      */
@@ -187,6 +198,18 @@ public class ResourceMojo extends AbstractResourceMojo {
     @Parameter(property = "fabric8.openshift.deployTimeoutSeconds", defaultValue = "3600")
     private Long openshiftDeployTimeoutSeconds;
 
+    /**
+     * Reuse the resources generated by a previous run if none of the inputs (fragments,
+     * POM, enricher and generator configuration, profile, resolved images, build output and
+     * environment read by enrichers) have changed. The cache is stored in <code>target/fabric8</code>.
+     * It is not used when an enricher queries the cluster.
+     */
+    @Parameter(property = "fabric8.resource.cache", defaultValue = "false")
+    private boolean cacheResources;
+
+    // Files attached to the project during this run, recorded for the resource cache
+    private List<ResourceGenerationCache.Output> attachedResources = new ArrayList<>();
+
     // Access for creating OpenShift binary builds
     private ClusterAccess clusterAccess;
 
@@ -199,23 +222,191 @@ public class ResourceMojo extends AbstractResourceMojo {
         try {
             lateInit();
 
+            // Read the Git metadata in the background while images are resolved, it is shared by all modules
+            if (!skip) {
+                GitMetadata.prefetch(session, project);
+            }
+
             // Resolve the Docker image build configuration
             resolvedImages = getResolvedImages(images, log);
 
             if (!skip && (!isPomProject() || hasFabric8Dir())) {
+                EnricherManager enricherManager = createEnricherManager();
+
+                ResourceGenerationCache cache = null;
+                String cacheKey = null;
+                if (cacheResources) {
+                    cache = new ResourceGenerationCache(new File(project.getBuild().getDirectory(), "fabric8"), log);
+                    cacheKey = createResourceCacheKey(enricherManager);
+                    if (reuseCachedResources(cache, cacheKey)) {
+                        return;
+                    }
+                    cache.invalidate();
+                }
+
                 // Extract and generate resources which can be a mix of Kubernetes and OpenShift resources
-                KubernetesList resources = generateResources(resolvedImages);
+                KubernetesList resources = generateResources(resolvedImages, enricherManager);
 
                 // Adapt list to use OpenShift specific resource objects
                 KubernetesList openShiftResources = convertToOpenShiftResources(resources);
+                addSpecHashAnnotations(openShiftResources);
                 writeResources(openShiftResources, ResourceClassifier.OPENSHIFT);
 
                 // Remove OpenShift specific stuff provided by fragments
                 KubernetesList kubernetesResources = convertToKubernetesResources(resources, openShiftResources);
+                addSpecHashAnnotations(kubernetesResources);
                 writeResources(kubernetesResources, ResourceClassifier.KUBERNETES);
+
+                if (cache != null) {
+                    cache.store(cacheKey, attachedResources);
+                }
             }
         } catch (IOException e) {
             throw new MojoExecutionException("Failed to generate fabric8 descriptor", e);
+        } finally {
+            ProcessorTimings.forProject(project, timings).writeReport(log);
+        }
+    }
+
+    @Override
+    protected void attachResource(String type, String classifier, File file) {
+        super.attachResource(type, classifier, file);
+        attachedResources.add(new ResourceGenerationCache.Output(type, classifier, file));
+    }
+
+    private boolean reuseCachedResources(ResourceGenerationCache cache, String cacheKey) {
+        if (cacheKey == null) {
+            return false;
+        }
+        List<ResourceGenerationCache.Output> outputs = cache.lookup(cacheKey);
+        if (outputs == null) {
+            return false;
+        }
+        log.info("Resources unchanged, reusing resources generated in %s", targetDir);
+        for (ResourceGenerationCache.Output output : outputs) {
+            super.attachResource(output.getType(), output.getClassifier(), output.getFile());
+        }
+        return true;
+    }
+
+    // Key over everything which influences the generated resources. Must be called after the images
+    // have been resolved and the platform mode has been set. Returns null if the resources can't be cached.
+    private String createResourceCacheKey(EnricherManager enricherManager) throws IOException {
+        List<String> onlineEnrichers = getOnlineEnrichers(enricherManager);
+        if (!onlineEnrichers.isEmpty()) {
+            log.info("Resource cache disabled: Enrichers %s query the cluster", onlineEnrichers);
+            return null;
+        }
+        ResourceGenerationCache.KeyBuilder builder = new ResourceGenerationCache.KeyBuilder()
+            .add("pluginVersion", ResourceMojo.class.getPackage().getImplementationVersion())
+            .add("project", Arrays.asList(project.getGroupId(), project.getArtifactId(), project.getVersion(), project.getPackaging()))
+            .addFile("pom", project.getFile())
+            .add("properties", new TreeMap<>(project.getProperties()))
+            .add("userProperties", new TreeMap<>(session.getUserProperties()))
+            .add("artifacts", getArtifactFingerprints())
+            .addFile("resourceDir", resourceDir)
+            .add("platformMode", platformMode)
+            .add("buildStrategy", buildStrategy)
+            .add("profile", profile)
+            .add("enricher", extractEnricherConfig())
+            .add("generator", extractGeneratorConfig())
+            .add("resources", resources)
+            .add("images", resolvedImages)
+            .add("targetDir", targetDir.getAbsolutePath())
+            .add("openshiftDeployTimeoutSeconds", openshiftDeployTimeoutSeconds)
+            .add("useProjectClasspath", useProjectClasspath)
+            // Read by enrichers (e.g. application.properties) and generators (main class, fat jar).
+            // The generated manifests are written below the output directory, too, and are skipped.
+            .addFileStamps("outputDirectory", new File(project.getBuild().getOutputDirectory()),
+                           targetDir, new File(project.getBuild().getOutputDirectory(), "META-INF/fabric8"))
+            .add("buildArtifacts", getBuildArtifactFingerprints())
+            .add("environment", getEnricherEnvironment());
+        addGitHead(builder);
+        String key = builder.build();
+        if (key == null) {
+            log.info("Resource cache disabled: %s", builder.getError());
+        }
+        return key;
+    }
+
+    // Online enrichers for the default config and the profiles of resource subdirectories
+    private List<String> getOnlineEnrichers(EnricherManager enricherManager) throws IOException {
+        Set<String> ret = new LinkedHashSet<>(enricherManager.getOnlineEnrichers());
+        for (File profileDir : listProfileDirs(resourceDir)) {
+            Profile profile = ProfileUtil.lookup(profileDir.getName(), resourceDir);
+            if (profile != null) {
+                ret.addAll(enricherManager.getOnlineEnrichers(profile.getEnricherConfig()));
+            }
+        }
+        return new ArrayList<>(ret);
+    }
+
+    // Files like the application jar directly within the build directory
+    private List<String> getBuildArtifactFingerprints() {
+        List<String> ret = new ArrayList<>();
+        File[] files = new File(project.getBuild().getDirectory()).listFiles();
+        if (files != null) {
+            Arrays.sort(files);
+            for (File file : files) {
+                if (file.isFile()) {
+                    ret.add(file.getName() + ":" + file.length() + ":" + file.lastModified());
+                }
+            }
+        }
+        return ret;
+    }
+
+    // Environment variables (or system properties) read by enrichers
+    private Map<String, String> getEnricherEnvironment() throws IOException {
+        Set<String> names = new TreeSet<>(Arrays.asList("BUILD_ID", "GIT_USER"));
+        String gitUserEnvVar = extractEnricherConfig().getConfig("f8-cd", "gitUserEnvVar");
+        if (gitUserEnvVar != null) {
+            names.add(gitUserEnvVar);
+        }
+        Map<String, String> ret = new TreeMap<>();
+        for (String name : names) {
+            ret.put(name, Systems.getEnvVarOrSystemProperty(name));
+        }
+        return ret;
+    }
+
+    private List<String> getArtifactFingerprints() {
+        List<String> ret = new ArrayList<>();
+        for (Artifact artifact : project.getArtifacts()) {
+            File file = artifact.getFile();
+            ret.add(artifact.getId() + (file != null ? ":" + file.length() + ":" + file.lastModified() : ""));
+        }
+        return ret;
+    }
+
+    // Enrichers add the current commit, so the Git HEAD is part of the key, too
+    private void addGitHead(ResourceGenerationCache.KeyBuilder builder) throws IOException {
+        File dir = project.getBasedir();
+        while (dir != null && !new File(dir, ".git").isDirectory()) {
+            dir = dir.getParentFile();
+        }
+        if (dir == null) {
+            return;
+        }
+        File gitDir = new File(dir, ".git");
+        File head = new File(gitDir, "HEAD");
+        builder.addFile("gitHead", head);
+        if (head.isFile()) {
+            String ref = Files.toString(head).trim();
+            if (ref.startsWith("ref: ")) {
+                builder.addFile("gitRef", new File(gitDir, ref.substring("ref: ".length())));
+                builder.addFile("gitPackedRefs", new File(gitDir, "packed-refs"));
+            }
+        }
+    }
+
+    // Annotate top level objects with a hash of their spec so that unchanged objects can be
+    // skipped when applying. Templates are skipped as their objects get processed before applying.
+    private void addSpecHashAnnotations(KubernetesList list) {
+        for (HasMetadata item : list.getItems()) {
+            if (!(item instanceof Template)) {
+                KubernetesResourceUtil.addSpecHashAnnotation(item);
+            }
         }
     }
 
@@ -346,10 +537,21 @@ public class ResourceMojo extends AbstractResourceMojo {
 
 
 
-    private KubernetesList generateResources(List<ImageConfiguration> images)
+    private KubernetesList generateResources(List<ImageConfiguration> images, EnricherManager enricherManager)
         throws IOException, MojoExecutionException {
 
-        // Manager for calling enrichers.
+        // Generate all resources from the main resource diretory, configuration and enrich them accordingly
+        KubernetesListBuilder builder = generateAppResources(images, enricherManager);
+
+        // Add resources found in subdirectories of resourceDir, with a certain profile
+        // applied
+        addProfiledResourcesFromSubirectories(builder, resourceDir, enricherManager);
+
+        return builder.build();
+    }
+
+    // Manager for calling enrichers.
+    private EnricherManager createEnricherManager() throws IOException {
         openshiftDependencyResources = new OpenShiftDependencyResources(log);
         EnricherContext.Builder ctxBuilder = new EnricherContext.Builder()
             .project(project)
@@ -360,51 +562,45 @@ public class ResourceMojo extends AbstractResourceMojo {
             .images(resolvedImages)
             .log(log)
             .useProjectClasspath(useProjectClasspath)
-            .openshiftDependencyResources(openshiftDependencyResources);
+            .openshiftDependencyResources(openshiftDependencyResources)
+            .timings(ProcessorTimings.forProject(project, timings));
         if (resources != null) {
             ctxBuilder.namespace(resources.getNamespace());
         }
-        EnricherManager enricherManager = new EnricherManager(resources, ctxBuilder.build());
-
-        // Generate all resources from the main resource diretory, configuration and enrich them accordingly
-        KubernetesListBuilder builder = generateAppResources(images, enricherManager);
+        return new EnricherManager(resources, ctxBuilder.build());
+    }
 
-        // Add resources found in subdirectories of resourceDir, with a certain profile
-        // applied
-        addProfiledResourcesFromSubirectories(builder, resourceDir, enricherManager);
+    private void addProfiledResourcesFromSubirectories(KubernetesListBuilder builder, File resourceDir, EnricherManager enricherManager) throws IOException, MojoExecutionException {
+        for (File profileDir : listProfileDirs(resourceDir)) {
+            Profile profile = ProfileUtil.findProfile(profileDir.getName(), resourceDir);
+            if (profile == null) {
+                throw new MojoExecutionException(String.format("Invalid profile '%s' given as directory in %s. " +
+                                "Please either define a profile of this name or move this directory away",
+                        profileDir.getName(), resourceDir));
+            }
 
-        return builder.build();
+            ProcessorConfig enricherConfig = profile.getEnricherConfig();
+            File[] resourceFiles = KubernetesResourceUtil.listResourceFragments(profileDir);
+            if (resourceFiles.length > 0) {
+                KubernetesListBuilder profileBuilder = readResourceFragments(resourceFiles);
+                enricherManager.createDefaultResources(enricherConfig, profileBuilder);
+                enricherManager.enrich(enricherConfig, profileBuilder);
+                KubernetesList profileItems = profileBuilder.build();
+                for (HasMetadata item : profileItems.getItems()) {
+                    builder.addToItems(item);
+                }
+            }
+        }
     }
 
-    private void addProfiledResourcesFromSubirectories(KubernetesListBuilder builder, File resourceDir, EnricherManager enricherManager) throws IOException, MojoExecutionException {
+    private List<File> listProfileDirs(File resourceDir) {
         File[] profileDirs = resourceDir.listFiles(new FileFilter() {
             @Override
             public boolean accept(File pathname) {
                 return pathname.isDirectory();
             }
         });
-        if (profileDirs != null) {
-            for (File profileDir : profileDirs) {
-                Profile profile = ProfileUtil.findProfile(profileDir.getName(), resourceDir);
-                if (profile == null) {
-                    throw new MojoExecutionException(String.format("Invalid profile '%s' given as directory in %s. " +
-                                    "Please either define a profile of this name or move this directory away",
-                            profileDir.getName(), resourceDir));
-                }
-
-                ProcessorConfig enricherConfig = profile.getEnricherConfig();
-                File[] resourceFiles = KubernetesResourceUtil.listResourceFragments(profileDir);
-                if (resourceFiles.length > 0) {
-                    KubernetesListBuilder profileBuilder = readResourceFragments(resourceFiles);
-                    enricherManager.createDefaultResources(enricherConfig, profileBuilder);
-                    enricherManager.enrich(enricherConfig, profileBuilder);
-                    KubernetesList profileItems = profileBuilder.build();
-                    for (HasMetadata item : profileItems.getItems()) {
-                        builder.addToItems(item);
-                    }
-                }
-            }
-        }
+        return profileDirs != null ? Arrays.asList(profileDirs) : Collections.<File>emptyList();
     }
 
     private KubernetesListBuilder generateAppResources(List<ImageConfiguration> images, EnricherManager enricherManager) throws IOException, MojoExecutionException {
@@ -446,7 +642,8 @@ public class ResourceMojo extends AbstractResourceMojo {
         builder = KubernetesResourceUtil.readResourceFragmentsFrom(
             KubernetesResourceUtil.DEFAULT_RESOURCE_VERSIONING,
             defaultName,
-            mavenFilterFiles(resourceFiles));
+            mavenFilterFiles(resourceFiles),
+            log);
         return builder;
     }
 
@@ -612,6 +809,7 @@ public class ResourceMojo extends AbstractResourceMojo {
                             .mode(mode)
                             .strategy(buildStrategy)
                             .useProjectClasspath(useProjectClasspath)
+                            .timings(ProcessorTimings.forProject(project, timings))
                             .build();
                         return GeneratorManager.generate(configs, ctx, true);
                     } catch (Exception e) {
@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.net.URL;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Future;
 
 import io.fabric8.kubernetes.api.KubernetesHelper;
 import io.fabric8.kubernetes.api.model.HasMetadata;
@@ -35,7 +36,9 @@ import io.fabric8.maven.core.service.Fabric8ServiceHub;
 import io.fabric8.maven.core.util.GoalFinder;
 import io.fabric8.maven.core.util.Gofabric8Util;
 import io.fabric8.maven.core.util.KubernetesResourceUtil;
+import io.fabric8.maven.core.util.ProcessorTimings;
 import io.fabric8.maven.core.util.ProfileUtil;
+import io.fabric8.maven.core.util.ProjectClassLoaders;
 import io.fabric8.maven.docker.access.DockerAccessException;
 import io.fabric8.maven.docker.config.ImageConfiguration;
 import io.fabric8.maven.docker.service.BuildService;
@@ -120,6 +123,13 @@ public class WatchMojo extends io.fabric8.maven.docker.WatchMojo {
     @Parameter(property = "fabric8.useProjectClasspath", defaultValue = "false")
     private boolean useProjectClasspath = false;
 
+    /**
+     * Record wall time, CPU time and allocated memory per generator and watcher
+     * in target/fabric8/timings.json
+     */
+    @Parameter(property = "fabric8.timings", defaultValue = "false")
+    private boolean timings;
+
     /**
      * Profile to use. A profile contains the enrichers and generators to
      * use as well as their configuration. Profiles are looked up
@@ -184,8 +194,10 @@ public class WatchMojo extends io.fabric8.maven.docker.WatchMojo {
         }
 
         try {
-            Set<HasMetadata> resources = KubernetesResourceUtil.loadResources(manifest);
+            // Parse the manifest while setting up the watcher context
+            Future<Set<HasMetadata>> loadedResources = KubernetesResourceUtil.loadResourcesInBackground(manifest);
             WatcherContext context = getWatcherContext();
+            Set<HasMetadata> resources = KubernetesResourceUtil.getLoadedResources(loadedResources);
 
             WatcherManager.watch(getResolvedImages(), resources, context);
 
@@ -193,6 +205,8 @@ public class WatchMojo extends io.fabric8.maven.docker.WatchMojo {
             KubernetesResourceUtil.handleKubernetesClientException(ex, this.log);
         } catch (Exception ex) {
             throw new MojoExecutionException("An error has occurred while while trying to watch the resources", ex);
+        } finally {
+            ProjectClassLoaders.release(project);
         }
 
     }
@@ -219,6 +233,7 @@ public class WatchMojo extends io.fabric8.maven.docker.WatchMojo {
                 .namespace(clusterAccess.getNamespace())
                 .kubernetesClient(kubernetes)
                 .fabric8ServiceHub(getFabric8ServiceHub())
+                .timings(ProcessorTimings.forProject(project, timings))
                 .build();
     }
 
@@ -255,6 +270,7 @@ public class WatchMojo extends io.fabric8.maven.docker.WatchMojo {
                     .strategy(buildStrategy)
                     .useProjectClasspath(useProjectClasspath)
                     .artifactResolver(serviceHub.getArtifactResolverService())
+                    .timings(ProcessorTimings.forProject(project, timings))
                     .build();
             return GeneratorManager.generate(configs, ctx, false);
         } catch (MojoExecutionException e) {
@@ -33,6 +33,7 @@ import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.maven.core.access.ClusterAccess;
 import io.fabric8.maven.core.util.KubernetesResourceUtil;
 import io.fabric8.maven.docker.util.Logger;
+import io.fabric8.maven.enricher.api.util.GitMetadata;
 import io.fabric8.maven.plugin.mojo.AbstractFabric8Mojo;
 import io.fabric8.openshift.api.model.BuildConfig;
 import io.fabric8.openshift.api.model.BuildConfigList;
@@ -57,7 +58,7 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.codehaus.plexus.components.interactivity.Prompter;
 import org.codehaus.plexus.components.interactivity.PrompterException;
-import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.api.errors.GitAPIException;
 
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
@@ -134,18 +135,13 @@ public class ImportMojo extends AbstractFabric8Mojo {
         }
 
         // lets check for a git repo
-        String gitRemoteURL = null;
-        Repository repository = null;
+        GitMetadata git;
         try {
-            repository = GitUtils.findRepository(basedir);
-        } catch (IOException e) {
-            throw new MojoExecutionException("Failed to find local git repository in current directory: " + e, e);
-        }
-        try {
-            gitRemoteURL = GitUtils.getRemoteURL(repository);
-        } catch (Exception e) {
-            throw new MojoExecutionException("Failed to get the current git branch: " + e, e);
+            git = GitMetadata.forDirectory(session, basedir);
+        } catch (IOException | GitAPIException e) {
+            throw new MojoExecutionException("Failed to read local git repository in current directory: " + e, e);
         }
+        String gitRemoteURL = git != null ? git.getRemoteUrl() : null;
 
         try {
             clusterAccess = new ClusterAccess(this.namespace);
@@ -161,7 +157,7 @@ public class ImportMojo extends AbstractFabric8Mojo {
 
             if (gitRemoteURL != null) {
                 // lets check we don't already have this project imported
-                String branch = repository.getBranch();
+                String branch = git.getBranch();
                 BuildConfig buildConfig = findBuildConfigForGitRepo(openShiftClient, namespace, gitRemoteURL, branch);
                 if (buildConfig != null) {
                     logBuildConfigLink(kubernetes, namespace, buildConfig, log);
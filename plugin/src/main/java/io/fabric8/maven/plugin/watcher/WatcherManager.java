@@ -22,8 +22,9 @@ import io.fabric8.kubernetes.api.KubernetesHelper;
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.maven.core.config.PlatformMode;
 import io.fabric8.maven.core.config.ProcessorConfig;
-import io.fabric8.maven.core.util.ClassUtil;
 import io.fabric8.maven.core.util.PluginServiceFactory;
+import io.fabric8.maven.core.util.ProcessorTimings;
+import io.fabric8.maven.core.util.ProjectClassLoaders;
 import io.fabric8.maven.docker.config.ImageConfiguration;
 import io.fabric8.maven.docker.util.Logger;
 import io.fabric8.maven.watcher.api.Watcher;
@@ -41,7 +42,7 @@ public class WatcherManager {
 
         PluginServiceFactory<WatcherContext> pluginFactory =
                 watcherCtx.isUseProjectClasspath() ?
-            new PluginServiceFactory<>(watcherCtx, ClassUtil.createProjectClassLoader(watcherCtx.getProject(), watcherCtx.getLogger())) :
+            new PluginServiceFactory<>(watcherCtx, ProjectClassLoaders.forProject(watcherCtx.getProject()).getProjectClassLoader(watcherCtx.getLogger())) :
             new PluginServiceFactory<>(watcherCtx);
 
         boolean isOpenshift = KubernetesHelper.isOpenShift(watcherCtx.getKubernetesClient());
@@ -53,13 +54,17 @@ public class WatcherManager {
                                                "META-INF/fabric8/watcher",
                                                "META-INF/fabric8-watcher");
 
-        ProcessorConfig config = watcherCtx.getConfig();
+        ProcessorConfig config = watcherCtx.getConfig().compile();
         Logger log = watcherCtx.getLogger();
+        ProcessorTimings timings = watcherCtx.getTimings();
         List<Watcher> usableWatchers  = config.prepareProcessors(watchers, "watcher");
         log.verbose("Watchers:");
         Watcher chosen = null;
         for (Watcher watcher : usableWatchers) {
-            if (watcher.isApplicable(ret, resources, mode)) {
+            ProcessorTimings.Sample sample = timings.start();
+            boolean applicable = watcher.isApplicable(ret, resources, mode);
+            timings.stop("watcher", watcher.getName(), "isApplicable", sample);
+            if (applicable) {
                 if (chosen == null) {
                     log.verbose(" - %s [selected]", watcher.getName());
                     chosen = watcher;
@@ -76,6 +81,9 @@ public class WatcherManager {
         }
 
 
+        // Watching doesn't return until the build is stopped
+        timings.writeReport(log);
+
         log.info("Running watcher %s", chosen.getName());
         chosen.watch(ret, resources, mode);
     }
@@ -95,5 +95,10 @@ public class EnricherManagerTest {
         Map<String, String> labels = metadata.getLabels();
         assertNotNull(labels);
         assertEquals("fabric8", labels.get("provider"));
+
+        // Selectors are added in the same traversal as the labels
+        Map<String, String> selector = pod.getSpec().getSelector().getMatchLabels();
+        assertEquals("fabric8", selector.get("provider"));
+        assertTrue(selector.containsKey("version"));
     }
 }
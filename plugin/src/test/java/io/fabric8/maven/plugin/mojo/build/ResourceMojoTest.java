@@ -0,0 +1,127 @@
+/*
+ * Copyright 2016 Red Hat, Inc.
+ *
+ * Red Hat licenses this file to you under the Apache License, version
+ * 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package io.fabric8.maven.plugin.mojo.build;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Properties;
+
+import io.fabric8.maven.core.config.PlatformMode;
+import io.fabric8.maven.core.util.GoalFinder;
+import io.fabric8.maven.docker.config.handler.ImageConfigResolver;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.MavenProjectHelper;
+import org.apache.maven.settings.Settings;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import mockit.Deencapsulation;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(JMockit.class)
+public class ResourceMojoTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mocked
+    private MavenSession session;
+
+    @Mocked
+    private GoalFinder goalFinder;
+
+    @Mocked
+    private MavenProjectHelper projectHelper;
+
+    @Mocked
+    private ImageConfigResolver imageConfigResolver;
+
+    private MavenProject project;
+
+    @Before
+    public void setUp() throws IOException {
+        File baseDir = folder.newFolder("project");
+        File pom = new File(baseDir, "pom.xml");
+        pom.createNewFile();
+
+        Model model = new Model();
+        model.setGroupId("io.fabric8.test");
+        model.setArtifactId("cached");
+        model.setVersion("1.0.0");
+        model.setPackaging("jar");
+        Build build = new Build();
+        build.setDirectory(new File(baseDir, "target").getAbsolutePath());
+        build.setOutputDirectory(new File(baseDir, "target/classes").getAbsolutePath());
+        model.setBuild(build);
+        project = new MavenProject(model);
+        project.setFile(pom);
+        new File(build.getOutputDirectory()).mkdirs();
+
+        new Expectations() {{
+            session.getUserProperties(); result = new Properties(); minTimes = 0;
+            session.getTopLevelProject(); result = project; minTimes = 0;
+        }};
+    }
+
+    @Test
+    public void secondRunReusesCachedResources() throws Exception {
+        File manifest = new File(project.getBuild().getOutputDirectory(), "META-INF/fabric8/kubernetes.yml");
+
+        createMojo().execute();
+        assertTrue(manifest.isFile());
+        String content = new String(Files.readAllBytes(manifest.toPath()), StandardCharsets.UTF_8);
+        long stamp = manifest.lastModified() - 60000;
+        manifest.setLastModified(stamp);
+
+        // Nothing changed, so the manifest must not be written again
+        createMojo().execute();
+        assertEquals(stamp, manifest.lastModified());
+        assertEquals(content, new String(Files.readAllBytes(manifest.toPath()), StandardCharsets.UTF_8));
+    }
+
+    private ResourceMojo createMojo() {
+        File baseDir = project.getBasedir();
+        ResourceMojo mojo = new ResourceMojo();
+        mojo.setPluginContext(new HashMap());
+        Deencapsulation.setField(mojo, "project", project);
+        Deencapsulation.setField(mojo, "session", session);
+        Deencapsulation.setField(mojo, "settings", new Settings());
+        Deencapsulation.setField(mojo, "goalFinder", goalFinder);
+        Deencapsulation.setField(mojo, "projectHelper", projectHelper);
+        Deencapsulation.setField(mojo, "imageConfigResolver", imageConfigResolver);
+        Deencapsulation.setField(mojo, "resourceDir", new File(baseDir, "src/main/fabric8"));
+        Deencapsulation.setField(mojo, "workDir", new File(baseDir, "target/fabric8"));
+        Deencapsulation.setField(mojo, "targetDir", new File(project.getBuild().getOutputDirectory(), "META-INF/fabric8"));
+        Deencapsulation.setField(mojo, "mode", PlatformMode.kubernetes);
+        Deencapsulation.setField(mojo, "openshiftDeployTimeoutSeconds", 3600L);
+        Deencapsulation.setField(mojo, "cacheResources", true);
+        return mojo;
+    }
+}